@@ -1,29 +1,40 @@
 package ru.practicum.shareit.booking.client;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CacheRoutes;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.export.ExportFormat;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         HttpComponentsClientHttpRequestFactory shareitServerRequestFactory,
+                         ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareitServerRequestFactory)
+                        .build(),
+                responseCache
         );
     }
 
@@ -36,9 +47,26 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> getBookingsAfter(long userId, BookingState state, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
 
     public ResponseEntity<Object> create(long userId, BookingDto requestDto) {
-        return post("", userId, requestDto);
+        ResponseEntity<Object> response = post("", userId, requestDto);
+        evict(CacheRoutes.ITEMS, "/" + requestDto.getItemId());
+        return response;
+    }
+
+    public ResponseEntity<Object> createAll(long userId, List<BookingDto> bookings) {
+        ResponseEntity<Object> response = post("/batch", userId, bookings);
+        bookings.forEach(booking -> evict(CacheRoutes.ITEMS, "/" + booking.getItemId()));
+        return response;
     }
 
     public ResponseEntity<Object> findById(long userId, Long bookingId) {
@@ -49,7 +77,13 @@ public class BookingClient extends BaseClient {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters);
+        ResponseEntity<Object> response = patch("/" + bookingId + "?approved={approved}", userId, parameters);
+        // the last and next bookings of the booked item may have changed
+        JsonNode itemId = readJson(response.getBody()).path("item").path("id");
+        if (itemId.canConvertToLong()) {
+            evict(CacheRoutes.ITEMS, "/" + itemId.asLong());
+        }
+        return response;
     }
 
     public ResponseEntity<Object> findAllOwnerBookings(Long userId, BookingState state, Integer from, Integer size) {
@@ -61,4 +95,17 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> findOwnerBookingsAfter(Long userId, BookingState state, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<StreamingResponseBody> export(ExportFormat format) {
+        return stream("/export?format={format}", Map.of("format", format.name()));
+    }
+
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,22 +14,28 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.client.BookingClient;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.UnsupportedStatus;
+import ru.practicum.shareit.export.ExportFormat;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 import static ru.practicum.shareit.user.util.UserHeader.USER_HEADER;
 
 @Slf4j
 @Validated
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
@@ -42,6 +49,14 @@ public class BookingController {
         return bookingClient.create(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createAll(@RequestHeader(USER_HEADER) @NotNull Long userId,
+                                            @RequestBody @NotEmpty @Size(max = 100) List<@Valid BookingDto> bookings) {
+
+        log.info("Creating {} bookings, userId={}", bookings.size(), userId);
+        return bookingClient.createAll(userId, bookings);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveBooking(@RequestHeader(USER_HEADER) @NotNull Long userId,
                                                  @PathVariable Long bookingId,
@@ -64,12 +79,17 @@ public class BookingController {
             @RequestHeader(USER_HEADER) long userId,
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
 
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new UnsupportedStatus("Unknown state: " + stateParam));
 
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size,
+                cursor);
+        if (cursor != null) {
+            return bookingClient.getBookingsAfter(userId, state, cursor, size);
+        }
         return bookingClient.getBookings(userId, state, from, size);
     }
 
@@ -78,13 +98,29 @@ public class BookingController {
             @RequestHeader(USER_HEADER) Long userId,
             @RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam,
             @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
+            @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size,
+            @RequestParam(required = false) String cursor) {
 
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new UnsupportedStatus("Unknown state: " + stateParam));
 
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size,
+                cursor);
+        if (cursor != null) {
+            return bookingClient.findOwnerBookingsAfter(userId, state, cursor, size);
+        }
 
         return bookingClient.findAllOwnerBookings(userId, state, from, size);
     }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(name = "format", defaultValue = "ndjson") String formatParam) {
+        ExportFormat format = ExportFormat.from(formatParam)
+                .orElseThrow(() -> new UnsupportedStatus("Unknown export format: " + formatParam));
+
+        log.info("Exporting bookings as {}", format);
+        return bookingClient.export(format);
+    }
+
 }
@@ -1,24 +1,46 @@
 package ru.practicum.shareit.client;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
 import java.util.Map;
-
-import static ru.practicum.shareit.user.util.UserHeader.USER_HEADER;
+import java.util.function.Predicate;
 
 public class BaseClient {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
     protected final RestTemplate rest;
+    // forwards the server's response bytes as they are instead of parsing them and writing them out again;
+    // GET bodies are copied into the gateway response as they arrive, writes keep their small body so the
+    // cache is evicted before the caller sees the result
+    @Value("${shareit-server.client.passthrough:true}")
+    private boolean passthrough;
+    private final ResponseCache responseCache;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, ResponseCache responseCache) {
         this.rest = rest;
+        this.responseCache = responseCache;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -33,6 +55,98 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    /**
+     * Answers from {@link ResponseCache} while the route's ttl lasts, then revalidates the entry with the server by its
+     * ETag. A matching {@code If-None-Match} from the caller is answered with 304 Not Modified either way.
+     */
+    protected ResponseEntity<Object> cachedGet(String route, String path, Long userId,
+                                               @Nullable Map<String, Object> parameters, @Nullable String ifNoneMatch) {
+        if (!responseCache.caches(route)) {
+            return get(path, userId, parameters);
+        }
+
+        String key = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of()) + " "
+                + userId;
+        ResponseCache.Entry entry = responseCache.get(key);
+        if (entry != null && entry.isFresh()) {
+            responseCache.recordHit(route, entry);
+            return fromCache(entry, ifNoneMatch);
+        }
+
+        HttpHeaders headers = GatewayHeaders.toServer(userId);
+        if (entry != null && entry.getETag() != null) {
+            headers.setIfNoneMatch(entry.getETag());
+        }
+        long loadVersion = responseCache.loadVersion(route);
+        ResponseEntity<?> response = exchange(HttpMethod.GET, path, headers, parameters, null, byte[].class);
+
+        if (entry != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            responseCache.refresh(key, entry);
+            responseCache.recordRevalidated(route, entry);
+            return fromCache(entry, ifNoneMatch);
+        }
+
+        responseCache.recordMiss(route);
+        if (response.getStatusCode().is4xxClientError()) {
+            responseCache.evict(route, pathOf(path));
+        }
+        if (response.getStatusCode() != HttpStatus.OK || !response.hasBody()) {
+            return prepareGatewayResponse(response);
+        }
+
+        String eTag = response.getHeaders().getETag();
+        HttpHeaders gatewayHeaders = GatewayHeaders.fromServer(response.getHeaders());
+        byte[] body = (byte[]) response.getBody();
+        responseCache.put(key, route, pathOf(path), loadVersion, eTag, gatewayHeaders, body);
+        if (matches(ifNoneMatch, eTag)) {
+            responseCache.recordNotModified(body);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().headers(gatewayHeaders).body(body);
+    }
+
+    /**
+     * Drops the cached responses of {@code route} for {@code path}, or of the whole route when {@code path} is
+     * {@code null}, after a write through the gateway changed them.
+     */
+    protected void evict(String route, @Nullable String path) {
+        responseCache.evict(route, path);
+    }
+
+    /**
+     * Drops the cached responses of {@code route} that {@code matching} accepts, for writes that change responses
+     * the gateway can only recognize by their body.
+     */
+    protected void evictIf(String route, Predicate<ResponseCache.Entry> matching) {
+        responseCache.evictIf(route, matching);
+    }
+
+    /**
+     * Sends a GET for the gateway itself: the body is never passed through to the caller but read as JSON.
+     */
+    protected JsonNode getJson(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return readJson(exchange(HttpMethod.GET, path, GatewayHeaders.toServer(userId), parameters, null,
+                byte[].class).getBody());
+    }
+
+    /**
+     * Reads a response body as JSON, whether it still holds the server's bytes or was parsed already.
+     * A missing body or one that isn't JSON reads as a missing node.
+     */
+    protected static JsonNode readJson(@Nullable Object body) {
+        if (body == null) {
+            return MissingNode.getInstance();
+        }
+        if (!(body instanceof byte[])) {
+            return JSON.valueToTree(body);
+        }
+        try {
+            return JSON.readTree((byte[]) body);
+        } catch (IOException e) {
+            return MissingNode.getInstance();
+        }
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -85,38 +199,134 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Sends the request and checks the server's status before the gateway commits its own response. A successful
+     * response body is then copied to the caller as it arrives, without reading it into memory first; an error is
+     * forwarded whole with its status, like the other calls.
+     */
+    protected ResponseEntity<StreamingResponseBody> stream(String path, Map<String, Object> parameters) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters);
+        ClientHttpResponse response;
+        try {
+            response = rest.getRequestFactory().createRequest(uri, HttpMethod.GET).execute();
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+
+        try {
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getRawStatusCode())
+                    .headers(GatewayHeaders.fromServer(response.getHeaders()));
+            if (!HttpStatus.Series.SUCCESSFUL.equals(HttpStatus.Series.resolve(response.getRawStatusCode()))) {
+                byte[] body = StreamUtils.copyToByteArray(response.getBody());
+                response.close();
+                return responseBuilder.body(out -> out.write(body));
+            }
+            return responseBuilder.body(out -> {
+                try (response) {
+                    StreamUtils.copy(response.getBody(), out);
+                }
+            });
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        HttpServletResponse servletResponse = passthrough && method == HttpMethod.GET ? currentResponse() : null;
+        if (servletResponse != null) {
+            passThrough(path, GatewayHeaders.toServer(userId), parameters, servletResponse);
+            // Spring MVC treats a null ResponseEntity as a response the handler has already written
+            return null;
+        }
+
+        Class<?> responseType = passthrough ? byte[].class : Object.class;
+
+        return prepareGatewayResponse(exchange(method, path, GatewayHeaders.toServer(userId), parameters, body,
+                responseType));
+    }
+
+    private <T> ResponseEntity<?> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                           @Nullable Map<String, Object> parameters, @Nullable T body,
+                                           Class<?> responseType) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
 
-        ResponseEntity<Object> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                return rest.exchange(path, method, requestEntity, responseType, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                return rest.exchange(path, method, requestEntity, responseType);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(e.getResponseHeaders())
+                    .body(e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-        if (userId != null) {
-            headers.set(USER_HEADER, String.valueOf(userId));
+    /**
+     * Copies the server's status and headers to {@code servletResponse}, then its body as it arrives, so the gateway
+     * never holds the whole body. Error bodies are short and come already read from the exception.
+     */
+    private void passThrough(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                             HttpServletResponse servletResponse) {
+        try {
+            rest.execute(path, HttpMethod.GET, rest.httpEntityCallback(new HttpEntity<>(headers)), response -> {
+                copyStatusAndHeaders(response.getRawStatusCode(), response.getHeaders(), servletResponse);
+                StreamUtils.copy(response.getBody(), servletResponse.getOutputStream());
+                return null;
+            }, parameters != null ? parameters : Map.of());
+        } catch (HttpStatusCodeException e) {
+            copyStatusAndHeaders(e.getRawStatusCode(), e.getResponseHeaders(), servletResponse);
+            try {
+                StreamUtils.copy(e.getResponseBodyAsByteArray(), servletResponse.getOutputStream());
+            } catch (IOException ioException) {
+                throw new ResourceAccessException("I/O error writing the response of GET " + path, ioException);
+            }
         }
-        return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static void copyStatusAndHeaders(int status, @Nullable HttpHeaders headers,
+                                             HttpServletResponse servletResponse) {
+        servletResponse.setStatus(status);
+        GatewayHeaders.fromServer(headers).forEach((name, values) ->
+                values.forEach(value -> servletResponse.addHeader(name, value)));
+    }
+
+    @Nullable
+    private static HttpServletResponse currentResponse() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes ? ((ServletRequestAttributes) attributes).getResponse()
+                : null;
+    }
+
+    private ResponseEntity<Object> fromCache(ResponseCache.Entry entry, @Nullable String ifNoneMatch) {
+        if (matches(ifNoneMatch, entry.getETag())) {
+            responseCache.recordNotModified(entry.getBody());
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entry.getETag()).build();
         }
+        return ResponseEntity.ok().headers(entry.getHeaders()).body(entry.getBody());
+    }
+
+    static boolean matches(@Nullable String ifNoneMatch, @Nullable String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        String strongETag = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(strongETag));
+    }
+
+    private static String pathOf(String path) {
+        int query = path.indexOf('?');
+        return query < 0 ? path : path.substring(0, query);
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<?> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(GatewayHeaders.fromServer(response.getHeaders()));
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
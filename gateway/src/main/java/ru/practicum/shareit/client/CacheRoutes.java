@@ -0,0 +1,7 @@
+package ru.practicum.shareit.client;
+
+public class CacheRoutes {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+    public static final String REQUESTS = "requests";
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Set;
+
+import static ru.practicum.shareit.user.util.UserHeader.USER_HEADER;
+
+/**
+ * Headers the gateway sends to shareit-server and copies back from it, shared by the blocking and reactive clients.
+ */
+public final class GatewayHeaders {
+    // hop-by-hop headers describe the server's connection to the gateway, and the length is set again on write
+    private static final Set<String> NOT_PROXIED_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade", "content-length");
+
+    private GatewayHeaders() {
+    }
+
+    public static HttpHeaders toServer(@Nullable Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (userId != null) {
+            headers.set(USER_HEADER, String.valueOf(userId));
+        }
+        return headers;
+    }
+
+    public static HttpHeaders fromServer(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!NOT_PROXIED_HEADERS.contains(name.toLowerCase())) {
+                    headers.addAll(name, values);
+                }
+            });
+        }
+        return headers;
+    }
+
+}
@@ -0,0 +1,215 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * LRU cache of successful GET responses from shareit-server, bounded by the bytes it holds and expired per route.
+ * Expired entries are kept until evicted, so their ETag can revalidate them with the server.
+ * A response loaded while an eviction of its route ran is not cached, so a write never leaves an older copy behind.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache {
+    private static final String CACHE_NAME = "gatewayResponses";
+
+    private final Map<String, Duration> ttls;
+    private final long maxBytes;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // bumped by every eviction of the route, so a load only loses to evictions that could have covered it
+    private final Map<String, AtomicLong> versions = new HashMap<>();
+    private final Map<String, RouteMetrics> metrics = new HashMap<>();
+    private final Counter evictions;
+    private final Counter serverBytesSaved;
+    private final Counter clientBytesSaved;
+    private long bytes;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.ttls = Map.copyOf(properties.getTtl());
+        this.maxBytes = properties.getMaxSize().toBytes();
+        for (String route : ttls.keySet()) {
+            versions.put(route, new AtomicLong());
+            metrics.put(route, new RouteMetrics(route, meterRegistry));
+        }
+        this.evictions = meterRegistry.counter("cache.evictions", "cache", CACHE_NAME);
+        this.serverBytesSaved = meterRegistry.counter("cache.bytes.saved", "cache", CACHE_NAME, "source", "server");
+        this.clientBytesSaved = meterRegistry.counter("cache.bytes.saved", "cache", CACHE_NAME, "source", "client");
+        meterRegistry.gauge("cache.size", Tags.of("cache", CACHE_NAME), entries, this::size);
+        meterRegistry.gauge("cache.bytes", Tags.of("cache", CACHE_NAME), this, ResponseCache::bytes);
+    }
+
+    public boolean caches(String route) {
+        return ttls.containsKey(route);
+    }
+
+    /**
+     * Returns the entry of {@code key} even when it has expired, or {@code null} when there is none.
+     */
+    @Nullable
+    public Entry get(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    /**
+     * Returns the version to pass to {@link #put} for a response of {@code route} that is about to be loaded.
+     */
+    public long loadVersion(String route) {
+        return versions.get(route).get();
+    }
+
+    public void put(String key, String route, String path, long loadVersion, String eTag, HttpHeaders headers,
+                    byte[] body) {
+        Entry entry = new Entry(route, path, eTag, headers, body, System.nanoTime() + ttls.get(route).toNanos(),
+                key.length() + (long) body.length);
+        synchronized (entries) {
+            if (versions.get(route).get() != loadVersion) {
+                return;
+            }
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                bytes -= previous.size;
+            }
+            bytes += entry.size;
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().size;
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Keeps {@code entry} for another ttl after the server confirmed it with 304 Not Modified.
+     */
+    public void refresh(String key, Entry entry) {
+        Entry refreshed = new Entry(entry.route, entry.path, entry.eTag, entry.headers, entry.body,
+                System.nanoTime() + ttls.get(entry.route).toNanos(), entry.size);
+        synchronized (entries) {
+            entries.replace(key, entry, refreshed);
+        }
+    }
+
+    /**
+     * Drops every entry of {@code route} for {@code path}, whatever its query and user, or every entry of the route
+     * when {@code path} is {@code null}.
+     */
+    public void evict(String route, @Nullable String path) {
+        evictIf(route, entry -> path == null || entry.path.equals(path));
+    }
+
+    /**
+     * Drops every entry of {@code route} that {@code matching} accepts.
+     */
+    public void evictIf(String route, Predicate<Entry> matching) {
+        AtomicLong version = versions.get(route);
+        if (version == null) {
+            return;
+        }
+        synchronized (entries) {
+            version.incrementAndGet();
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.route.equals(route) && matching.test(entry)) {
+                    bytes -= entry.size;
+                    iterator.remove();
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    public void recordHit(String route, Entry entry) {
+        metrics.get(route).hits.increment();
+        serverBytesSaved.increment(entry.body.length);
+    }
+
+    public void recordRevalidated(String route, Entry entry) {
+        metrics.get(route).revalidated.increment();
+        serverBytesSaved.increment(entry.body.length);
+    }
+
+    public void recordMiss(String route) {
+        metrics.get(route).misses.increment();
+    }
+
+    public void recordNotModified(byte[] body) {
+        clientBytesSaved.increment(body.length);
+    }
+
+    private double size(Map<String, Entry> entries) {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private double bytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Entry {
+        private final String route;
+        private final String path;
+        private final String eTag;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final long expiresAt;
+        private final long size;
+
+        public boolean isFresh() {
+            return expiresAt - System.nanoTime() > 0;
+        }
+    }
+
+    private static class RouteMetrics {
+        private final Counter hits;
+        private final Counter revalidated;
+        private final Counter misses;
+
+        RouteMetrics(String route, MeterRegistry meterRegistry) {
+            this.hits = counter(meterRegistry, route, "hit");
+            this.revalidated = counter(meterRegistry, route, "revalidated");
+            this.misses = counter(meterRegistry, route, "miss");
+            // a revalidated entry is served from the cache too, only its headers come from the server
+            Gauge.builder("shareit.cache.hit.ratio", this, RouteMetrics::hitRatio)
+                    .tags("cache", CACHE_NAME, "region", route)
+                    .register(meterRegistry);
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String route, String result) {
+            return meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "region", route, "result", result);
+        }
+
+        private double hitRatio() {
+            double served = hits.count() + revalidated.count();
+            double total = served + misses.count();
+            return total == 0 ? Double.NaN : served / total;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties("shareit-gateway.cache")
+public class ResponseCacheProperties {
+    // bodies and keys of all cached responses together
+    private DataSize maxSize = DataSize.ofMegabytes(16);
+    // responses of a route without a ttl are never cached
+    private Map<String, Duration> ttl = new LinkedHashMap<>();
+
+}
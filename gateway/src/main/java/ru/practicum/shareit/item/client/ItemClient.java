@@ -1,42 +1,68 @@
 package ru.practicum.shareit.item.client;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CacheRoutes;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.export.ExportFormat;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final int ITEM_IDS_PAGE_SIZE = 100;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      HttpComponentsClientHttpRequestFactory shareitServerRequestFactory,
+                      ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareitServerRequestFactory)
+                        .build(),
+                responseCache
         );
     }
 
     public ResponseEntity<Object> create(Long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+        ResponseEntity<Object> response = post("", userId, itemDto);
+        evict(CacheRoutes.REQUESTS, "/all");
+        return response;
+    }
+
+    public ResponseEntity<Object> createAll(Long userId, List<ItemDto> items) {
+        ResponseEntity<Object> response = post("/batch", userId, items);
+        evict(CacheRoutes.REQUESTS, "/all");
+        return response;
     }
 
     public ResponseEntity<Object> update(Long userId, Long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+        ResponseEntity<Object> response = patch("/" + itemId, userId, itemDto);
+        evict(CacheRoutes.ITEMS, "/" + itemId);
+        evict(CacheRoutes.REQUESTS, "/all");
+        return response;
     }
 
-    public ResponseEntity<Object> findById(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public ResponseEntity<Object> findById(Long userId, Long itemId, String ifNoneMatch) {
+        return cachedGet(CacheRoutes.ITEMS, "/" + itemId, userId, null, ifNoneMatch);
     }
 
     public ResponseEntity<Object> findAllItemsOfUser(Long userId, Integer from, Integer size) {
@@ -48,6 +74,21 @@ public class ItemClient extends BaseClient {
     }
 
 
+    /**
+     * Ids of every item {@code userId} owns, read page by page from the server.
+     */
+    public Set<Long> findItemIdsOfUser(Long userId) {
+        Set<Long> ids = new HashSet<>();
+        JsonNode page;
+        int from = 0;
+        do {
+            page = getJson("?from={from}&size={size}", userId, Map.of("from", from, "size", ITEM_IDS_PAGE_SIZE));
+            page.forEach(item -> ids.add(item.path("id").asLong()));
+            from += ITEM_IDS_PAGE_SIZE;
+        } while (page.size() == ITEM_IDS_PAGE_SIZE);
+        return ids;
+    }
+
     public ResponseEntity<Object> search(Long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
@@ -57,8 +98,26 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> findAvailable(Long userId, String text, LocalDateTime start, LocalDateTime end,
+                                                Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "start", start,
+                "end", end,
+                "from", from,
+                "size", size
+        );
+        return get("/available?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
+    }
+
     public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto comment) {
-        return post("/" + itemId + "/comment", userId, comment);
+        ResponseEntity<Object> response = post("/" + itemId + "/comment", userId, comment);
+        evict(CacheRoutes.ITEMS, "/" + itemId);
+        return response;
+    }
+
+    public ResponseEntity<StreamingResponseBody> export(ExportFormat format) {
+        return stream("/export?format={format}", Map.of("format", format.name()));
     }
 
 }
@@ -2,6 +2,9 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,19 +16,27 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exception.UnsupportedStatus;
+import ru.practicum.shareit.export.ExportFormat;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static ru.practicum.shareit.user.util.UserHeader.USER_HEADER;
 
 @Slf4j
 @Validated
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
@@ -40,6 +51,15 @@ public class ItemController {
         return itemClient.create(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createAll(
+            @RequestHeader(USER_HEADER) @NotNull Long userId,
+            @RequestBody @NotEmpty @Size(max = 100) List<@Valid ItemDto> items) {
+
+        log.info("Creating {} items, userId={}", items.size(), userId);
+        return itemClient.createAll(userId, items);
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<Object> update(
             @RequestHeader(USER_HEADER) @NotNull Long userId,
@@ -53,10 +73,11 @@ public class ItemController {
     @GetMapping("/{id}")
     public ResponseEntity<Object> findById(
             @RequestHeader(USER_HEADER) @NotNull Long userId,
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.info("Finding item with id={}, userId={}", id, userId);
-        return itemClient.findById(userId, id);
+        return itemClient.findById(userId, id, ifNoneMatch);
     }
 
     @GetMapping
@@ -80,6 +101,19 @@ public class ItemController {
         return itemClient.search(userId, text, from, size);
     }
 
+    @GetMapping("/available")
+    public ResponseEntity<Object> findAvailable(
+            @RequestHeader(USER_HEADER) @NotNull Long userId,
+            @RequestParam(required = false, defaultValue = "") String text,
+            @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
+            @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
+
+        log.info("Finding items '{}' available from {} to {}, userId={}", text, start, end, userId);
+        return itemClient.findAvailable(userId, text, start, end, from, size);
+    }
+
     @PostMapping("/{id}/comment")
     public ResponseEntity<Object> addComment(
             @RequestHeader(USER_HEADER) @NotNull Long userId,
@@ -89,4 +123,15 @@ public class ItemController {
         log.info("Adding comment to item with id={}, userId={}", id, userId);
         return itemClient.addComment(userId, id, comment);
     }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(name = "format", defaultValue = "ndjson") String formatParam) {
+        ExportFormat format = ExportFormat.from(formatParam)
+                .orElseThrow(() -> new UnsupportedStatus("Unknown export format: " + formatParam));
+
+        log.info("Exporting items as {}", format);
+        return itemClient.export(format);
+    }
+
 }
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.UnsupportedStatus;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.item.client.ReactiveItemClient;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static ru.practicum.shareit.user.util.UserHeader.USER_HEADER;
+
+@Slf4j
+@Validated
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/items")
+@RequiredArgsConstructor
+public class ReactiveItemController {
+    private final ReactiveItemClient itemClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> create(
+            @RequestHeader(USER_HEADER) @NotNull Long userId,
+            @Valid @RequestBody ItemDto itemDto) {
+
+        log.info("Creating item {}", itemDto);
+        return itemClient.create(userId, itemDto);
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createAll(
+            @RequestHeader(USER_HEADER) @NotNull Long userId,
+            @RequestBody @NotEmpty @Size(max = 100) List<@Valid ItemDto> items) {
+
+        log.info("Creating {} items, userId={}", items.size(), userId);
+        return itemClient.createAll(userId, items);
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Object>> update(
+            @RequestHeader(USER_HEADER) @NotNull Long userId,
+            @PathVariable Long id,
+            @RequestBody ItemDto itemDto) {
+
+        log.info("Updating item with id={}, userId={}", id, userId);
+        return itemClient.update(userId, id, itemDto);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Object>> findById(
+            @RequestHeader(USER_HEADER) @NotNull Long userId,
+            @PathVariable Long id) {
+
+        log.info("Finding item with id={}, userId={}", id, userId);
+        return itemClient.findById(userId, id);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> findAllItemsOfUser(
+            @RequestHeader(USER_HEADER) @NotNull Long userId,
+            @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
+            @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
+
+        log.info("Finding all items of user with id={}", userId);
+        return itemClient.findAllItemsOfUser(userId, from, size);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Object>> search(
+            @RequestHeader(USER_HEADER) @NotNull Long userId,
+            @RequestParam(name = "text") String text,
+            @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
+            @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
+
+        log.info("Searching items with request '{}', userId={}", text, userId);
+        return itemClient.search(userId, text, from, size);
+    }
+
+    @GetMapping("/available")
+    public Mono<ResponseEntity<Object>> findAvailable(
+            @RequestHeader(USER_HEADER) @NotNull Long userId,
+            @RequestParam(required = false, defaultValue = "") String text,
+            @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
+            @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
+
+        log.info("Finding items '{}' available from {} to {}, userId={}", text, start, end, userId);
+        return itemClient.findAvailable(userId, text, start, end, from, size);
+    }
+
+    @PostMapping("/{id}/comment")
+    public Mono<ResponseEntity<Object>> addComment(
+            @RequestHeader(USER_HEADER) @NotNull Long userId,
+            @PathVariable Long id,
+            @Valid @RequestBody CommentDto comment) {
+
+        log.info("Adding comment to item with id={}, userId={}", id, userId);
+        return itemClient.addComment(userId, id, comment);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<Flux<DataBuffer>> export(
+            @RequestParam(name = "format", defaultValue = "ndjson") String formatParam) {
+        ExportFormat format = ExportFormat.from(formatParam)
+                .orElseThrow(() -> new UnsupportedStatus("Unknown export format: " + formatParam));
+
+        log.info("Exporting items as {}", format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(itemClient.export(format));
+    }
+
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -9,21 +10,27 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CacheRoutes;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             HttpComponentsClientHttpRequestFactory shareitServerRequestFactory,
+                             ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareitServerRequestFactory)
+                        .build(),
+                responseCache
         );
     }
 
@@ -32,19 +39,22 @@ public class ItemRequestClient extends BaseClient {
             return new ResponseEntity<>("Wrong request", HttpStatus.BAD_REQUEST);
         }
 
-        return post("", userId, itemRequestDto);
+        ResponseEntity<Object> response = post("", userId, itemRequestDto);
+        evict(CacheRoutes.REQUESTS, "/all");
+        return response;
     }
 
     public ResponseEntity<Object> findAllRequestsOfUser(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> findAllRequestsExceptYours(Long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> findAllRequestsExceptYours(Long userId, Integer from, Integer size,
+                                                             String ifNoneMatch) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return cachedGet(CacheRoutes.REQUESTS, "/all?from={from}&size={size}", userId, parameters, ifNoneMatch);
     }
 
     public ResponseEntity<Object> findById(Long userId, Long requestId) {
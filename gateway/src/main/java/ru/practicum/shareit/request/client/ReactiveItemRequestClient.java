@@ -0,0 +1,57 @@
+package ru.practicum.shareit.request.client;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemRequestClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/requests";
+
+    @Autowired
+    public ReactiveItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                                     ReactorClientHttpConnector shareitServerConnector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(shareitServerConnector)
+                        .build()
+        );
+    }
+
+    public Mono<ResponseEntity<Object>> create(Long userId, ItemRequestDto itemRequestDto) {
+        if (itemRequestDto.getDescription() == null) {
+            return Mono.just(new ResponseEntity<>("Wrong request", HttpStatus.BAD_REQUEST));
+        }
+
+        return post("", userId, itemRequestDto);
+    }
+
+    public Mono<ResponseEntity<Object>> findAllRequestsOfUser(Long userId) {
+        return get("", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> findAllRequestsExceptYours(Long userId, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("/all?from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> findById(Long userId, Long requestId) {
+        return get("/" + requestId, userId);
+    }
+
+}
@@ -2,6 +2,8 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,6 +26,7 @@ import static ru.practicum.shareit.user.util.UserHeader.USER_HEADER;
 @Slf4j
 @Validated
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
 public class ItemRequestController {
@@ -47,10 +50,11 @@ public class ItemRequestController {
     public ResponseEntity<Object> findAllRequestsExceptYours(
             @RequestHeader(USER_HEADER) @NotNull Long userId,
             @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
+            @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.info("Finding all request except userId={}", userId);
-        return itemRequestClient.findAllRequestsExceptYours(userId, from, size);
+        return itemRequestClient.findAllRequestsExceptYours(userId, from, size, ifNoneMatch);
     }
 
     @GetMapping("{requestId}")
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.user.client;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/users";
+
+    @Autowired
+    public ReactiveUserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                              ReactorClientHttpConnector shareitServerConnector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(shareitServerConnector)
+                        .build()
+        );
+    }
+
+    public Mono<ResponseEntity<Object>> create(UserDto userDto) {
+        if (userDto.getEmail() == null || userDto.getName() == null) {
+            return Mono.just(new ResponseEntity<>("Wrong request", HttpStatus.BAD_REQUEST));
+        }
+
+        return post("", userDto);
+    }
+
+    public Mono<ResponseEntity<Object>> findById(Long userId) {
+        return get("/" + userId);
+    }
+
+    public Mono<ResponseEntity<Object>> update(Long id, UserDto userDto) {
+        return patch("/" + id, userDto);
+    }
+
+    public Mono<ResponseEntity<Object>> findAllUsers(Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> findUsersAfter(String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?cursor={cursor}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> delete(Long id) {
+        return delete("/" + id);
+    }
+
+    public Flux<DataBuffer> export(ExportFormat format) {
+        return stream("/export?format={format}", Map.of("format", format.name()));
+    }
+
+}
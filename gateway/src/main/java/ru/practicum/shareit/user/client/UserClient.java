@@ -1,28 +1,45 @@
 package ru.practicum.shareit.user.client;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CacheRoutes;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.Map;
+import java.util.Set;
+
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
+    private final ItemClient itemClient;
+
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      HttpComponentsClientHttpRequestFactory shareitServerRequestFactory,
+                      ResponseCache responseCache, ItemClient itemClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareitServerRequestFactory)
+                        .build(),
+                responseCache
         );
+        this.itemClient = itemClient;
     }
 
     public ResponseEntity<Object> create(UserDto userDto) {
@@ -33,20 +50,76 @@ public class UserClient extends BaseClient {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> findById(Long userId) {
-        return get("/" + userId);
+    public ResponseEntity<Object> findById(Long userId, String ifNoneMatch) {
+        return cachedGet(CacheRoutes.USERS, "/" + userId, null, null, ifNoneMatch);
     }
 
     public ResponseEntity<Object> update(Long id, UserDto userDto) {
-        return patch("/" + id, userDto);
+        ResponseEntity<Object> response = patch("/" + id, userDto);
+        evict(CacheRoutes.USERS, "/" + id);
+        return response;
     }
 
-    public ResponseEntity<Object> findAllUsers() {
-        return get("");
+    public ResponseEntity<Object> findAllUsers(Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", null, parameters);
+    }
+
+    public ResponseEntity<Object> findUsersAfter(String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?cursor={cursor}&size={size}", null, parameters);
     }
 
     public ResponseEntity<Object> delete(Long id) {
-        return delete("/" + id);
+        // the items, bookings and requests of the user go with it; its items are only known through their owner,
+        // so they are looked up while they still exist. Its comments on other items show just its name and
+        // expire with the items ttl
+        Set<Long> itemIds = itemClient.findItemIdsOfUser(id);
+        ResponseEntity<Object> response = delete("/" + id);
+        evict(CacheRoutes.USERS, "/" + id);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            evictIf(CacheRoutes.ITEMS, entry -> itemIds.contains(itemIdOf(entry.getPath()))
+                    || isBookedBy(readJson(entry.getBody()), id));
+            evictIf(CacheRoutes.REQUESTS, entry -> concernsUser(readJson(entry.getBody()), id, itemIds));
+        }
+        return response;
+    }
+
+    public ResponseEntity<StreamingResponseBody> export(ExportFormat format) {
+        return stream("/export?format={format}", Map.of("format", format.name()));
+    }
+
+    private static Long itemIdOf(String path) {
+        try {
+            return Long.valueOf(path.substring(1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isBookedBy(JsonNode item, long userId) {
+        return item.path("lastBooking").path("bookerId").asLong() == userId
+                || item.path("nextBooking").path("bookerId").asLong() == userId;
+    }
+
+    private static boolean concernsUser(JsonNode requests, long userId, Set<Long> itemIds) {
+        for (JsonNode request : requests) {
+            if (request.path("requestorId").asLong() == userId) {
+                return true;
+            }
+            for (JsonNode item : request.path("items")) {
+                if (itemIds.contains(item.path("id").asLong())) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
 }
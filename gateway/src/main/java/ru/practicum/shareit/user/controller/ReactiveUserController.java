@@ -0,0 +1,90 @@
+package ru.practicum.shareit.user.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.UnsupportedStatus;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.user.client.ReactiveUserClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+@Slf4j
+@Validated
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/users")
+@RequiredArgsConstructor
+public class ReactiveUserController {
+    private final ReactiveUserClient userClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> create(@Valid @RequestBody UserDto userDto) {
+        log.info("Creating user {}", userDto);
+        return userClient.create(userDto);
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Object>> update(@PathVariable @NotNull Long id,
+                                                @RequestBody UserDto userDto) {
+
+        log.info("Updating user with id={}", id);
+        return userClient.update(id, userDto);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Object>> findById(@PathVariable Long id) {
+        log.info("Finding user with id={}", id);
+        return userClient.findById(id);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> findAllUsers(
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+
+        log.info("Finding users, from={}, size={}, cursor={}", from, size, cursor);
+        if (cursor != null) {
+            return userClient.findUsersAfter(cursor, size);
+        }
+        return userClient.findAllUsers(from, size);
+    }
+    @NotNull
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<Object>> delete(@PathVariable @NotNull Long id) {
+        log.info("Deleting user with id={}", id);
+        return userClient.delete(id);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<Flux<DataBuffer>> export(
+            @RequestParam(name = "format", defaultValue = "ndjson") String formatParam) {
+        ExportFormat format = ExportFormat.from(formatParam)
+                .orElseThrow(() -> new UnsupportedStatus("Unknown export format: " + formatParam));
+
+        log.info("Exporting users as {}", format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(userClient.export(format));
+    }
+
+}
@@ -0,0 +1,281 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static ru.practicum.shareit.user.util.UserHeader.USER_HEADER;
+
+/**
+ * Starts the gateway in each execution mode in front of a stub shareit-server that answers slowly, and sends it
+ * {@value #DEFAULT_CLIENTS} concurrent GET /bookings/1 requests. The stub and the clients run in a child JVM, so
+ * the heap measured here is the gateway's own and each process stays within its file descriptor limit.
+ * <p>
+ * First the stub holds every request until the gateway stops forwarding new ones; the heap used after a full GC at
+ * that point, minus the heap of the idle gateway, gives the concurrent connections per MB of heap. Then the stub
+ * answers after a fixed delay and the time to serve all clients gives the throughput.
+ * <p>
+ * Runs only with {@code mvn test -Pbenchmark}. {@code -Dshareit.benchmark.clients} and
+ * {@code -Dshareit.benchmark.pool} change the number of clients and the size of the gateway's pool to
+ * shareit-server, which defaults to the number of clients.
+ */
+@Slf4j
+@Tag("benchmark")
+public class GatewayLoadBenchmarkTest {
+    private static final int DEFAULT_CLIENTS = 1000;
+    private static final int CLIENTS = Integer.getInteger("shareit.benchmark.clients", DEFAULT_CLIENTS);
+    // sized to the clients by default, so only the execution model limits concurrency
+    private static final int POOL_SIZE = Integer.getInteger("shareit.benchmark.pool", CLIENTS);
+    private static final long SERVER_DELAY_MILLIS = 2000;
+    private static final int TOMCAT_THREADS = 200;
+
+    @Test
+    void executionModesUnderSlowServerTest() throws Exception {
+        Result servlet = run("servlet", Map.of());
+        Result virtualThreads = run("virtual threads", Map.of("shareit.virtual-threads.enabled", true));
+        Result reactive = run("reactive", Map.of("spring.main.web-application-type", "reactive"));
+
+        log.info("{} concurrent clients, pool of {}, {} ms server:\n{}\n{}\n{}\n{}", CLIENTS, POOL_SIZE,
+                SERVER_DELAY_MILLIS, Result.HEADER, servlet, virtualThreads, reactive);
+        Assertions.assertTrue(servlet.peakInFlight <= TOMCAT_THREADS, servlet.toString());
+        Assertions.assertTrue(virtualThreads.peakInFlight > TOMCAT_THREADS, virtualThreads.toString());
+        Assertions.assertTrue(reactive.peakInFlight > TOMCAT_THREADS, reactive.toString());
+    }
+
+    private Result run(String mode, Map<String, Object> modeProperties) throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process clients = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                Clients.class.getName(), String.valueOf(SERVER_DELAY_MILLIS), String.valueOf(CLIENTS))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        BufferedReader replies = new BufferedReader(new InputStreamReader(clients.getInputStream(),
+                StandardCharsets.UTF_8));
+        PrintStream commands = new PrintStream(clients.getOutputStream(), true, StandardCharsets.UTF_8);
+
+        try {
+            String serverUrl = "http://localhost:" + reply(replies);
+            try (ConfigurableApplicationContext gateway = startGateway(serverUrl, modeProperties)) {
+                String uri = "http://localhost:" + gateway.getEnvironment().getProperty("local.server.port")
+                        + "/bookings/1";
+                command(commands, replies, "send " + uri + " 50");
+                long idleHeap = usedHeapAfterGc();
+
+                int peakInFlight = Integer.parseInt(command(commands, replies, "hold " + uri + " " + CLIENTS));
+                long loadedHeap = usedHeapAfterGc();
+                command(commands, replies, "release");
+
+                long elapsedMillis = Long.parseLong(command(commands, replies, "send " + uri + " " + CLIENTS));
+                return new Result(mode, peakInFlight, loadedHeap - idleHeap, elapsedMillis);
+            }
+        } finally {
+            commands.println("exit");
+            if (!clients.waitFor(1, TimeUnit.MINUTES)) {
+                clients.destroyForcibly();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startGateway(String serverUrl, Map<String, Object> modeProperties) {
+        Map<String, Object> properties = new HashMap<>(Map.of(
+                "server.port", 0,
+                "shareit-server.url", serverUrl,
+                "shareit-server.client.max-total", POOL_SIZE,
+                "shareit-server.client.max-per-route", POOL_SIZE,
+                "shareit-server.client.connection-request-timeout", "PT15M",
+                "server.tomcat.threads.max", TOMCAT_THREADS,
+                "server.tomcat.max-connections", CLIENTS + 100,
+                "server.tomcat.accept-count", CLIENTS,
+                "logging.level.org.springframework.web.client.RestTemplate", "INFO"));
+        properties.putAll(modeProperties);
+
+        // command line arguments, because default properties lose to application.properties
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(ShareItGateway.class).run(args);
+    }
+
+    private static String command(PrintStream commands, BufferedReader replies, String command) throws IOException {
+        commands.println(command);
+        return reply(replies);
+    }
+
+    private static String reply(BufferedReader replies) throws IOException {
+        String reply = replies.readLine();
+        Assertions.assertNotNull(reply, "the client process exited");
+        Assertions.assertTrue(reply.startsWith("ok "), reply);
+        return reply.substring(3);
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @RequiredArgsConstructor
+    private static class Result {
+        static final String HEADER = String.format("%-16s %10s %10s %12s %10s", "mode", "in flight", "heap MB",
+                "conns / MB", "rps");
+
+        private final String mode;
+        private final int peakInFlight;
+        private final long heapBytes;
+        private final long elapsedMillis;
+
+        @Override
+        public String toString() {
+            double heapMegabytes = Math.max(heapBytes, 1) / (1024.0 * 1024.0);
+            return String.format("%-16s %10d %10.1f %12.0f %10d", mode, peakInFlight, heapMegabytes,
+                    CLIENTS / heapMegabytes, CLIENTS * 1000L / Math.max(elapsedMillis, 1));
+        }
+    }
+
+    /**
+     * The stub shareit-server and the load generator, run in their own JVM and driven one command per line:
+     * {@code send <uri> <count>} answers with the milliseconds it took, {@code hold <uri> <count>} with the number of
+     * requests the stub holds once the gateway stops forwarding new ones, and {@code release} lets them finish.
+     * Replies go to the process's standard output, which nothing else writes to: {@code System.out} is pointed at
+     * standard error first.
+     */
+    public static class Clients {
+        private static final byte[] BOOKING = "{\"id\":1,\"status\":\"WAITING\"}".getBytes(StandardCharsets.UTF_8);
+        private static final AtomicInteger inFlight = new AtomicInteger();
+        private static volatile CountDownLatch release;
+
+        public static void main(String[] args) throws Exception {
+            long delayMillis = Long.parseLong(args[0]);
+            int clients = Integer.parseInt(args[1]);
+            PrintStream replies = new PrintStream(new FileOutputStream(FileDescriptor.out), true,
+                    StandardCharsets.UTF_8);
+            System.setOut(System.err);
+            // the stub writes headers and body separately; without this, delayed ACKs add 40 ms to every response
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            // the stub would otherwise close all but 200 idle connections, which the gateway's pool still holds
+            System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(clients));
+
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), clients);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/", exchange -> {
+                inFlight.incrementAndGet();
+                try {
+                    CountDownLatch held = release;
+                    if (held != null) {
+                        held.await(15, TimeUnit.MINUTES);
+                    } else {
+                        Thread.sleep(delayMillis);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, BOOKING.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(BOOKING);
+                }
+            });
+            server.start();
+            replies.println("ok " + server.getAddress().getPort());
+
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofMinutes(1))
+                    .build();
+            BufferedReader commands = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            List<CompletableFuture<HttpResponse<Void>>> held = List.of();
+            for (String line = commands.readLine(); line != null && !line.equals("exit"); line = commands.readLine()) {
+                String[] command = line.split(" ");
+                try {
+                    if (command[0].equals("send")) {
+                        long start = System.nanoTime();
+                        awaitOk(sendAsync(client, command[1], Integer.parseInt(command[2])));
+                        replies.println("ok " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    } else if (command[0].equals("hold")) {
+                        release = new CountDownLatch(1);
+                        held = sendAsync(client, command[1], Integer.parseInt(command[2]));
+                        replies.println("ok " + awaitSteadyInFlight(Integer.parseInt(command[2])));
+                    } else if (command[0].equals("release")) {
+                        release.countDown();
+                        awaitOk(held);
+                        release = null;
+                        replies.println("ok released");
+                    }
+                } catch (RuntimeException e) {
+                    replies.println("failed " + line + ": " + e);
+                }
+            }
+            client.close();
+            server.stop(0);
+        }
+
+        private static List<CompletableFuture<HttpResponse<Void>>> sendAsync(HttpClient client, String uri,
+                                                                             int count) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                    .header(USER_HEADER, "1")
+                    .timeout(Duration.ofMinutes(15))
+                    .build();
+            List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+            return responses;
+        }
+
+        private static void awaitOk(List<CompletableFuture<HttpResponse<Void>>> responses) {
+            for (CompletableFuture<HttpResponse<Void>> response : responses) {
+                int status = response.join().statusCode();
+                if (status != 200) {
+                    throw new IllegalStateException("status " + status);
+                }
+            }
+        }
+
+        // waits until the gateway has forwarded every request it is going to forward before the stub answers
+        private static int awaitSteadyInFlight(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+            int last = -1;
+            int steadyPolls = 0;
+            while (System.nanoTime() < deadline && inFlight.get() < count && steadyPolls < 20) {
+                Thread.sleep(100);
+                int current = inFlight.get();
+                // the first requests can take a while to get through the gateway, so only count once they do
+                steadyPolls = current > 0 && current == last ? steadyPolls + 1 : 0;
+                last = current;
+            }
+            return inFlight.get();
+        }
+    }
+
+}
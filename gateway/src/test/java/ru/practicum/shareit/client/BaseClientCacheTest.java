@@ -0,0 +1,194 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.response.DefaultResponseCreator;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.client.BookingClient;
+import ru.practicum.shareit.item.client.ItemClient;
+import ru.practicum.shareit.user.client.UserClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static ru.practicum.shareit.user.util.UserHeader.USER_HEADER;
+
+public class BaseClientCacheTest {
+    private static final String USER = "{\"id\":1,\"name\":\"Иван\"}";
+    private static final String E_TAG = "\"1a\"";
+
+    private final RestTemplate rest = new RestTemplateBuilder()
+            .uriTemplateHandler(new DefaultUriBuilderFactory("http://server/users"))
+            .build();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void matchesWeakAndListFormsOfIfNoneMatchTest() {
+        assertThat(BaseClient.matches("\"1a\"", "\"1a\""), equalTo(true));
+        assertThat(BaseClient.matches("W/\"1a\"", "\"1a\""), equalTo(true));
+        assertThat(BaseClient.matches("\"1a\"", "W/\"1a\""), equalTo(true));
+        assertThat(BaseClient.matches("\"0f\", W/\"1a\" ,\"2b\"", "\"1a\""), equalTo(true));
+        assertThat(BaseClient.matches("*", "\"1a\""), equalTo(true));
+
+        assertThat(BaseClient.matches("\"0f\", \"2b\"", "\"1a\""), equalTo(false));
+        assertThat(BaseClient.matches("\"1a\"", "\"1A\""), equalTo(false));
+        assertThat(BaseClient.matches(null, "\"1a\""), equalTo(false));
+        assertThat(BaseClient.matches("\"1a\"", null), equalTo(false));
+    }
+
+    @Test
+    void cachedGetAnswersFromCacheWhileFreshTest() {
+        BaseClient client = client(Duration.ofHours(1));
+        server.expect(requestTo("http://server/users/1")).andRespond(userWithETag());
+
+        ResponseEntity<Object> miss = client.cachedGet(CacheRoutes.USERS, "/1", 1L, null, null);
+        ResponseEntity<Object> hit = client.cachedGet(CacheRoutes.USERS, "/1", 1L, null, null);
+        ResponseEntity<Object> notModified = client.cachedGet(CacheRoutes.USERS, "/1", 1L, null, "W/" + E_TAG);
+
+        server.verify();
+        assertThat(body(miss), equalTo(USER));
+        assertThat(body(hit), equalTo(USER));
+        assertThat(hit.getHeaders().getETag(), equalTo(E_TAG));
+        assertThat(notModified.getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+        assertThat(gets("hit"), equalTo(2.0));
+        assertThat(gets("miss"), equalTo(1.0));
+    }
+
+    @Test
+    void cachedGetRevalidatesExpiredEntryByETagTest() {
+        // a zero ttl expires every entry at once, so each get after the first revalidates it
+        BaseClient client = client(Duration.ZERO);
+        server.expect(requestTo("http://server/users/1")).andRespond(userWithETag());
+        server.expect(requestTo("http://server/users/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, E_TAG))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+        server.expect(requestTo("http://server/users/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, E_TAG))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        client.cachedGet(CacheRoutes.USERS, "/1", 1L, null, null);
+        ResponseEntity<Object> revalidated = client.cachedGet(CacheRoutes.USERS, "/1", 1L, null, null);
+        ResponseEntity<Object> notModified = client.cachedGet(CacheRoutes.USERS, "/1", 1L, null,
+                "\"0f\", " + E_TAG);
+
+        server.verify();
+        assertThat(revalidated.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(body(revalidated), equalTo(USER));
+        assertThat(notModified.getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+        assertThat(gets("revalidated"), equalTo(2.0));
+    }
+
+    @Test
+    void approveEvictsOnlyTheBookedItemTest() {
+        ResponseCache cache = cacheOfAllRoutes();
+        MockServerRestTemplateCustomizer servers = new MockServerRestTemplateCustomizer();
+        BookingClient bookingClient = new BookingClient("http://server", new RestTemplateBuilder(servers),
+                new HttpComponentsClientHttpRequestFactory(), cache);
+        servers.getServers().get(bookingClient.rest).expect(requestTo("http://server/bookings/10?approved=true"))
+                .andRespond(withSuccess("{\"id\":10,\"item\":{\"id\":1,\"name\":\"Дрель\"},"
+                        + "\"status\":\"APPROVED\"}", MediaType.APPLICATION_JSON));
+        put(cache, "/items/1 5", CacheRoutes.ITEMS, "/1", "{\"id\":1}");
+        put(cache, "/items/1 6", CacheRoutes.ITEMS, "/1", "{\"id\":1}");
+        put(cache, "/items/2 5", CacheRoutes.ITEMS, "/2", "{\"id\":2}");
+
+        bookingClient.approve(5L, 10L, true);
+
+        assertThat(cache.get("/items/1 5"), nullValue());
+        assertThat(cache.get("/items/1 6"), nullValue());
+        assertThat(cache.get("/items/2 5"), notNullValue());
+    }
+
+    @Test
+    void deleteUserEvictsOnlyEntriesOfTheUserTest() {
+        ResponseCache cache = cacheOfAllRoutes();
+        MockServerRestTemplateCustomizer servers = new MockServerRestTemplateCustomizer();
+        ItemClient itemClient = new ItemClient("http://server", new RestTemplateBuilder(servers),
+                new HttpComponentsClientHttpRequestFactory(), cache);
+        UserClient userClient = new UserClient("http://server", new RestTemplateBuilder(servers),
+                new HttpComponentsClientHttpRequestFactory(), cache, itemClient);
+        servers.getServers().get(itemClient.rest).expect(requestTo("http://server/items?from=0&size=100"))
+                .andExpect(header(USER_HEADER, "7"))
+                .andRespond(withSuccess("[{\"id\":1}]", MediaType.APPLICATION_JSON));
+        servers.getServers().get(userClient.rest).expect(requestTo("http://server/users/7"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withSuccess());
+        put(cache, "/users/7 null", CacheRoutes.USERS, "/7", "{\"id\":7}");
+        put(cache, "/users/5 null", CacheRoutes.USERS, "/5", "{\"id\":5}");
+        // item 1 belongs to the user, item 2 was booked by it, item 3 has nothing to do with it
+        put(cache, "/items/1 5", CacheRoutes.ITEMS, "/1", "{\"id\":1}");
+        put(cache, "/items/2 5", CacheRoutes.ITEMS, "/2", "{\"id\":2,\"lastBooking\":{\"id\":4,\"bookerId\":7}}");
+        put(cache, "/items/3 5", CacheRoutes.ITEMS, "/3", "{\"id\":3,\"lastBooking\":{\"id\":5,\"bookerId\":6}}");
+        put(cache, "/requests/all 5", CacheRoutes.REQUESTS, "/all", "[{\"id\":1,\"requestorId\":7,\"items\":[]}]");
+        put(cache, "/requests/all 6", CacheRoutes.REQUESTS, "/all",
+                "[{\"id\":2,\"requestorId\":5,\"items\":[{\"id\":1}]}]");
+        put(cache, "/requests/all 8", CacheRoutes.REQUESTS, "/all",
+                "[{\"id\":2,\"requestorId\":5,\"items\":[{\"id\":3}]}]");
+
+        userClient.delete(7L);
+
+        servers.getServers().values().forEach(MockRestServiceServer::verify);
+        assertThat(cache.get("/users/7 null"), nullValue());
+        assertThat(cache.get("/items/1 5"), nullValue());
+        assertThat(cache.get("/items/2 5"), nullValue());
+        assertThat(cache.get("/requests/all 5"), nullValue());
+        assertThat(cache.get("/requests/all 6"), nullValue());
+        assertThat(cache.get("/users/5 null"), notNullValue());
+        assertThat(cache.get("/items/3 5"), notNullValue());
+        assertThat(cache.get("/requests/all 8"), notNullValue());
+    }
+
+    private BaseClient client(Duration ttl) {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setTtl(Map.of(CacheRoutes.USERS, ttl));
+        return new BaseClient(rest, new ResponseCache(properties, meterRegistry));
+    }
+
+    private ResponseCache cacheOfAllRoutes() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setTtl(Map.of(CacheRoutes.USERS, Duration.ofHours(1), CacheRoutes.ITEMS, Duration.ofHours(1),
+                CacheRoutes.REQUESTS, Duration.ofHours(1)));
+        return new ResponseCache(properties, meterRegistry);
+    }
+
+    private static void put(ResponseCache cache, String key, String route, String path, String body) {
+        cache.put(key, route, path, cache.loadVersion(route), E_TAG, new HttpHeaders(),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static DefaultResponseCreator userWithETag() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(E_TAG);
+        return withSuccess(USER, MediaType.APPLICATION_JSON).headers(headers);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("region", CacheRoutes.USERS).tag("result", result).counter()
+                .count();
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
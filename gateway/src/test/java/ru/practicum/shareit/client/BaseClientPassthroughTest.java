@@ -0,0 +1,145 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.Allocations;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class BaseClientPassthroughTest {
+    private static final int LARGE_BODY_SIZE = 1024 * 1024;
+
+    private final RestTemplate rest = new RestTemplateBuilder()
+            .uriTemplateHandler(new DefaultUriBuilderFactory("http://server"))
+            .build();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+    private final BaseClient client = new BaseClient(rest,
+            new ResponseCache(new ResponseCacheProperties(), new SimpleMeterRegistry()));
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getCopiesServerResponseIntoGatewayResponseTest() throws IOException {
+        ReflectionTestUtils.setField(client, "passthrough", true);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        handle(servletResponse);
+        server.expect(requestTo("http://server/users/1"))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess("{\"id\":1,\"name\":\"user\"}", MediaType.APPLICATION_JSON));
+
+        assertThat(client.get("/users/1", 1L), nullValue());
+
+        assertThat(servletResponse.getStatus(), equalTo(200));
+        assertThat(servletResponse.getContentType(), equalTo(MediaType.APPLICATION_JSON_VALUE));
+        assertThat(servletResponse.getContentAsString(StandardCharsets.UTF_8), equalTo("{\"id\":1,\"name\":\"user\"}"));
+        server.verify();
+    }
+
+    @Test
+    void getCopiesServerErrorIntoGatewayResponseTest() throws IOException {
+        ReflectionTestUtils.setField(client, "passthrough", true);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        handle(servletResponse);
+        server.expect(requestTo("http://server/users/2"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":\"User with id=2 not found.\"}"));
+
+        assertThat(client.get("/users/2", 1L), nullValue());
+
+        assertThat(servletResponse.getStatus(), equalTo(404));
+        assertThat(servletResponse.getContentType(), equalTo(MediaType.APPLICATION_JSON_VALUE));
+        assertThat(servletResponse.getContentAsString(StandardCharsets.UTF_8),
+                equalTo("{\"error\":\"User with id=2 not found.\"}"));
+    }
+
+    @Test
+    void passthroughDoesNotBufferTheBodyTest() {
+        ReflectionTestUtils.setField(client, "passthrough", true);
+        byte[] body = new byte[LARGE_BODY_SIZE];
+        Arrays.fill(body, (byte) 'a');
+        server.expect(ExpectedCount.manyTimes(), requestTo("http://server/items"))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+
+        long streamed = Allocations.allocatedPerCall(20, () -> {
+            handle(new DiscardingResponse());
+            client.get("/items", 1L);
+        });
+        long buffered = Allocations.allocatedPerCall(20, () -> {
+            RequestContextHolder.resetRequestAttributes();
+            ResponseEntity<Object> response = client.get("/items", 1L);
+            assertThat(((byte[]) response.getBody()).length, equalTo(LARGE_BODY_SIZE));
+        });
+
+        Assertions.assertTrue(streamed < buffered,
+                "streamed: " + streamed + " bytes, buffered: " + buffered + " bytes");
+    }
+
+    private static void handle(HttpServletResponse servletResponse) {
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), servletResponse));
+    }
+
+    private static class DiscardingResponse extends HttpServletResponseWrapper {
+        private final ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+
+        DiscardingResponse() {
+            super(new MockHttpServletResponse());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return out;
+        }
+    }
+
+}
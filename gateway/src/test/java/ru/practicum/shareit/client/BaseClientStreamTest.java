@@ -0,0 +1,70 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class BaseClientStreamTest {
+    private static final MediaType CSV = new MediaType("text", "csv");
+
+    private final RestTemplate rest = new RestTemplateBuilder()
+            .uriTemplateHandler(new DefaultUriBuilderFactory("http://server"))
+            .build();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+    private final BaseClient client = new BaseClient(rest,
+            new ResponseCache(new ResponseCacheProperties(), new SimpleMeterRegistry()));
+
+    @Test
+    void streamCopiesSuccessfulResponseTest() throws IOException {
+        server.expect(requestTo("http://server/export?format=CSV"))
+                .andRespond(withSuccess("id,name\n1,Дрель\n", CSV));
+
+        ResponseEntity<StreamingResponseBody> response = client.stream("/export?format={format}",
+                Map.of("format", "CSV"));
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getHeaders().getContentType(), equalTo(CSV));
+        assertThat(write(response), equalTo("id,name\n1,Дрель\n"));
+        server.verify();
+    }
+
+    @Test
+    void streamForwardsErrorStatusBeforeCopyingTest() throws IOException {
+        server.expect(requestTo("http://server/export?format=CSV"))
+                .andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":\"export failed\"}"));
+
+        ResponseEntity<StreamingResponseBody> response = client.stream("/export?format={format}",
+                Map.of("format", "CSV"));
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.INTERNAL_SERVER_ERROR));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+        assertThat(write(response), equalTo("{\"error\":\"export failed\"}"));
+    }
+
+    private static String write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+}
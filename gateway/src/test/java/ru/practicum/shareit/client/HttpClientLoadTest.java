@@ -0,0 +1,133 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives GET requests from a growing number of gateway threads against a stub server that answers after a fixed
+ * delay, once through HttpClient's system defaults and once through the shared pool of {@link HttpClientConfig}.
+ * Its throughput ratios depend on the machine, so it runs only with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+public class HttpClientLoadTest {
+    private static final int SERVER_DELAY_MILLIS = 20;
+    private static final long MEASURE_MILLIS = 1000;
+    private static final int[] THREAD_COUNTS = {1, 4, 16, 64};
+    private static final byte[] USER = "{\"id\":1,\"name\":\"user\",\"email\":\"user@user.com\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    static {
+        // the stub writes headers and body separately; without this, delayed ACKs add 40 ms to every response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private HttpServer server;
+    private String url;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        server.setExecutor(Executors.newFixedThreadPool(128));
+        server.createContext("/users/1", exchange -> {
+            try {
+                Thread.sleep(SERVER_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, USER.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(USER);
+            }
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/users/1";
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void sharedPoolScalesWithGatewayThreadsTest() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        HttpClientConfig config = new HttpClientConfig();
+        HttpComponentsClientHttpRequestFactory pooled = config.shareitServerRequestFactory(
+                config.shareitServerConnectionManager(properties), properties);
+        HttpComponentsClientHttpRequestFactory systemDefaults = new HttpComponentsClientHttpRequestFactory();
+
+        long[] before = measure(systemDefaults);
+        long[] after = measure(pooled);
+        pooled.destroy();
+        systemDefaults.destroy();
+
+        StringBuilder table = new StringBuilder("\n  threads");
+        for (int threads : THREAD_COUNTS) {
+            table.append(String.format("%6d", threads));
+        }
+        table.append("\n  before ").append(row(before)).append(" rps\n  after  ").append(row(after)).append(" rps");
+        log.info("GET /users/1 with a {} ms server:{}", SERVER_DELAY_MILLIS, table);
+
+        // the system defaults allow 5 connections per route, so 16 threads wait for one while the pool serves all
+        Assertions.assertTrue(after[2] > 2 * before[2], table.toString());
+        Assertions.assertTrue(after[2] > 8 * after[0], table.toString());
+    }
+
+    private long[] measure(ClientHttpRequestFactory requestFactory) throws Exception {
+        RestTemplate rest = new RestTemplate(requestFactory);
+        rest.getForObject(url, byte[].class);
+
+        long[] throughput = new long[THREAD_COUNTS.length];
+        for (int i = 0; i < THREAD_COUNTS.length; i++) {
+            ExecutorService threads = Executors.newFixedThreadPool(THREAD_COUNTS[i]);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MEASURE_MILLIS);
+            List<Future<Long>> counts = new ArrayList<>();
+            for (int t = 0; t < THREAD_COUNTS[i]; t++) {
+                counts.add(threads.submit(() -> {
+                    long requests = 0;
+                    while (System.nanoTime() < deadline) {
+                        rest.getForObject(url, byte[].class);
+                        requests++;
+                    }
+                    return requests;
+                }));
+            }
+            for (Future<Long> count : counts) {
+                throughput[i] += count.get();
+            }
+            throughput[i] = throughput[i] * 1000 / MEASURE_MILLIS;
+            threads.shutdown();
+        }
+        return throughput;
+    }
+
+    private static String row(long[] throughput) {
+        StringBuilder row = new StringBuilder();
+        for (long rps : throughput) {
+            row.append(String.format("%6d", rps));
+        }
+        return row.toString();
+    }
+
+}
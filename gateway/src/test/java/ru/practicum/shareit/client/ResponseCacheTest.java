@@ -0,0 +1,117 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ResponseCacheTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxSizeTest() {
+        // every entry below takes 10 bytes: a one character key and a nine byte body
+        ResponseCache cache = cache(DataSize.ofBytes(30), Map.of(CacheRoutes.USERS, Duration.ofHours(1)));
+        put(cache, "a", CacheRoutes.USERS, "/1");
+        put(cache, "b", CacheRoutes.USERS, "/2");
+        put(cache, "c", CacheRoutes.USERS, "/3");
+        cache.get("a");
+
+        put(cache, "d", CacheRoutes.USERS, "/4");
+
+        assertThat(cache.get("b"), nullValue());
+        assertThat(cache.get("a"), notNullValue());
+        assertThat(cache.get("c"), notNullValue());
+        assertThat(cache.get("d"), notNullValue());
+        assertThat(meterRegistry.get("cache.evictions").counter().count(), equalTo(1.0));
+        assertThat(meterRegistry.get("cache.bytes").gauge().value(), equalTo(30.0));
+    }
+
+    @Test
+    void expiresEachRouteAfterItsTtlAndKeepsItForRevalidationTest() throws InterruptedException {
+        ResponseCache cache = cache(DataSize.ofMegabytes(1),
+                Map.of(CacheRoutes.USERS, Duration.ofHours(1), CacheRoutes.ITEMS, Duration.ofMillis(50)));
+        put(cache, "/users/1 1", CacheRoutes.USERS, "/1");
+        put(cache, "/items/1 1", CacheRoutes.ITEMS, "/1");
+
+        Thread.sleep(100);
+
+        assertThat(cache.get("/users/1 1").isFresh(), equalTo(true));
+        ResponseCache.Entry expired = cache.get("/items/1 1");
+        assertThat(expired.isFresh(), equalTo(false));
+        assertThat(expired.getETag(), equalTo("\"v1\""));
+
+        cache.refresh("/items/1 1", expired);
+
+        assertThat(cache.get("/items/1 1").isFresh(), equalTo(true));
+    }
+
+    @Test
+    void discardsLoadThatRacedEvictionOfItsRouteTest() {
+        ResponseCache cache = cache(DataSize.ofMegabytes(1),
+                Map.of(CacheRoutes.USERS, Duration.ofHours(1), CacheRoutes.ITEMS, Duration.ofHours(1)));
+        long usersLoad = cache.loadVersion(CacheRoutes.USERS);
+        long itemsLoad = cache.loadVersion(CacheRoutes.ITEMS);
+
+        // a write evicts the user while its old copy is still being loaded
+        cache.evict(CacheRoutes.USERS, "/1");
+        cache.put("/users/1 1", CacheRoutes.USERS, "/1", usersLoad, "\"v1\"", new HttpHeaders(), body());
+        cache.put("/items/1 1", CacheRoutes.ITEMS, "/1", itemsLoad, "\"v1\"", new HttpHeaders(), body());
+
+        assertThat(cache.get("/users/1 1"), nullValue());
+        assertThat(cache.get("/items/1 1"), notNullValue());
+
+        put(cache, "/users/1 1", CacheRoutes.USERS, "/1");
+
+        assertThat(cache.get("/users/1 1"), notNullValue());
+    }
+
+    @Test
+    void evictsOnlyMatchingPathUnlessWholeRouteTest() {
+        ResponseCache cache = cache(DataSize.ofMegabytes(1),
+                Map.of(CacheRoutes.USERS, Duration.ofHours(1), CacheRoutes.ITEMS, Duration.ofHours(1)));
+        put(cache, "/users/1 1", CacheRoutes.USERS, "/1");
+        put(cache, "/users/1 2", CacheRoutes.USERS, "/1");
+        put(cache, "/users/2 1", CacheRoutes.USERS, "/2");
+        put(cache, "/items/1 1", CacheRoutes.ITEMS, "/1");
+
+        cache.evict(CacheRoutes.USERS, "/1");
+        // requests have no ttl, so they are never cached and evicting them does nothing
+        cache.evict(CacheRoutes.REQUESTS, null);
+
+        assertThat(cache.get("/users/1 1"), nullValue());
+        assertThat(cache.get("/users/1 2"), nullValue());
+        assertThat(cache.get("/users/2 1"), notNullValue());
+        assertThat(cache.get("/items/1 1"), notNullValue());
+
+        cache.evict(CacheRoutes.ITEMS, null);
+
+        assertThat(cache.get("/items/1 1"), nullValue());
+        assertThat(cache.get("/users/2 1"), notNullValue());
+    }
+
+    private ResponseCache cache(DataSize maxSize, Map<String, Duration> ttl) {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setMaxSize(maxSize);
+        properties.setTtl(ttl);
+        return new ResponseCache(properties, meterRegistry);
+    }
+
+    private static void put(ResponseCache cache, String key, String route, String path) {
+        cache.put(key, route, path, cache.loadVersion(route), "\"v1\"", new HttpHeaders(), body());
+    }
+
+    private static byte[] body() {
+        return "{\"id\": 1}".getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -12,13 +12,17 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.util.BookingCursor;
+import ru.practicum.shareit.export.ExportFormat;
 
 import java.util.List;
 
 import static ru.practicum.shareit.user.util.UserHeader.USER_HEADER;
+import static ru.practicum.shareit.util.PagingHeaders.NEXT_CURSOR_HEADER;
 
 @Validated
 @RestController
@@ -34,6 +38,13 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.create(userId, bookingDto));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookingDto>> createBookings(@RequestHeader(USER_HEADER) Long userId,
+                                                           @RequestBody List<BookingShortDto> bookingDtos) {
+
+        return ResponseEntity.ok(bookingService.createAll(userId, bookingDtos));
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<BookingDto> approveBooking(@RequestHeader(USER_HEADER) Long userId,
                                                      @PathVariable Long bookingId,
@@ -54,8 +65,12 @@ public class BookingController {
             @RequestHeader(USER_HEADER) Long userId,
             @RequestParam(required = false, defaultValue = "ALL") String state,
             @RequestParam(required = false, defaultValue = "0") Integer from,
-            @RequestParam(required = false, defaultValue = "10") Integer size) {
+            @RequestParam(required = false, defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
 
+        if (cursor != null) {
+            return withNextCursor(bookingService.findBookingsMadeByUserAfter(userId, state, cursor, size), size);
+        }
         return ResponseEntity.ok(bookingService.findAllBookingsMadeByUser(userId, state, from, size));
     }
 
@@ -64,9 +79,32 @@ public class BookingController {
             @RequestHeader(USER_HEADER) Long userId,
             @RequestParam(required = false, defaultValue = "ALL") String state,
             @RequestParam(required = false, defaultValue = "0") Integer from,
-            @RequestParam(required = false, defaultValue = "10") Integer size) {
+            @RequestParam(required = false, defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
 
+        if (cursor != null) {
+            return withNextCursor(bookingService.findBookingsOfItemsAfter(userId, state, cursor, size), size);
+        }
         return ResponseEntity.ok(bookingService.findAllBookingsOfItems(userId, state, from, size));
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false, defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .body(out -> bookingService.export(exportFormat, out));
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size) {
+        if (bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, new BookingCursor(last.getStart(), last.getId()).encode())
+                .body(bookings);
+    }
+
 }
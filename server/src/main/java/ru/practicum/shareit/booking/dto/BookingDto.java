@@ -19,4 +19,12 @@ public class BookingDto {
     private ItemDto item;
     private UserDto booker;
     private BookingStatus status;
+
+    // flat form for "select new" projections, JPQL cannot nest constructor expressions
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      Long itemId, String itemName, String itemDescription, Boolean itemAvailable, Long itemRequestId,
+                      Long bookerId, String bookerName, String bookerEmail) {
+        this(id, start, end, new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequestId),
+                new UserDto(bookerId, bookerName, bookerEmail), status);
+    }
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@RequiredArgsConstructor
+public class BookingCreatedEvent {
+    private final Long id;
+    private final Long itemId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
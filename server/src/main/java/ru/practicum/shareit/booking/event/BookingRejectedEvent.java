@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class BookingRejectedEvent {
+    private final Long id;
+    private final Long itemId;
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.booking.overlap;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingCreatedEvent;
+import ru.practicum.shareit.booking.event.BookingRejectedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory intervals of WAITING and APPROVED bookings per item, used to reject overlapping bookings
+ * without touching the database. It may miss a booking but never holds one that no longer blocks:
+ * bookings are added after commit and removed both before and after the rejecting commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final ConcurrentMap<Long, ItemIntervals> intervals = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return getIntervals(itemId).overlaps(start, end);
+    }
+
+    @TransactionalEventListener
+    public void onBookingCreated(BookingCreatedEvent event) {
+        version.incrementAndGet();
+        intervals.computeIfPresent(event.getItemId(), (id, itemIntervals) ->
+                itemIntervals.with(event.getId(), event.getStart(), event.getEnd()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onBookingRejecting(BookingRejectedEvent event) {
+        onBookingRejected(event);
+    }
+
+    @TransactionalEventListener
+    public void onBookingRejected(BookingRejectedEvent event) {
+        version.incrementAndGet();
+        intervals.computeIfPresent(event.getItemId(), (id, itemIntervals) -> itemIntervals.without(event.getId()));
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        version.incrementAndGet();
+        intervals.clear();
+    }
+
+    private ItemIntervals getIntervals(Long itemId) {
+        ItemIntervals itemIntervals = intervals.get(itemId);
+        if (itemIntervals != null) {
+            return itemIntervals;
+        }
+
+        long loadVersion = version.get();
+        ItemIntervals loaded = ItemIntervals.of(bookingRepository.findIntervalBookings(itemId, BLOCKING_STATUSES));
+        ItemIntervals cached = intervals.compute(itemId, (id, existing) ->
+                existing != null ? existing : version.get() == loadVersion ? loaded : null);
+
+        return cached != null ? cached : loaded;
+    }
+
+}
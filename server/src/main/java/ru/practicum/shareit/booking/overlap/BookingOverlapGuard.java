@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking.overlap;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.booking.overlap.BookingIntervalIndex.BLOCKING_STATUSES;
+
+/**
+ * Saves a booking only if it does not overlap a WAITING or APPROVED booking of the same item.
+ * On PostgreSQL the {@code bookings_no_overlap} exclusion constraint is authoritative, on other databases
+ * the item row is locked before the range query so concurrent creates for one item are serialized.
+ */
+@Slf4j
+@Component
+public class BookingOverlapGuard {
+    static final String EXCLUSION_CONSTRAINT = "bookings_no_overlap";
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final boolean exclusionConstraint;
+
+    public BookingOverlapGuard(DataSource dataSource, BookingRepository bookingRepository,
+                               ItemRepository itemRepository, BookingIntervalIndex bookingIntervalIndex)
+            throws MetaDataAccessException {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        this.exclusionConstraint = DatabaseDriver.fromProductName(productName) == DatabaseDriver.POSTGRESQL;
+        log.info("Booking overlap is guarded by {}.", exclusionConstraint ? "exclusion constraint" : "item lock");
+    }
+
+    public Booking save(Booking booking) {
+        return saveAll(List.of(booking)).get(0);
+    }
+
+    /**
+     * All checks run before the bookings are persisted, so the inserts are flushed together as one JDBC batch.
+     */
+    public List<Booking> saveAll(List<Booking> bookings) {
+        checkEachOther(bookings);
+        for (Booking booking : bookings) {
+            Long itemId = booking.getItem().getId();
+            if (bookingIntervalIndex.overlaps(itemId, booking.getStart(), booking.getEnd())) {
+                throw overlap(itemId);
+            }
+        }
+
+        if (exclusionConstraint) {
+            try {
+                List<Booking> saved = bookingRepository.saveAll(bookings);
+                bookingRepository.flush();
+                return saved;
+            } catch (DataIntegrityViolationException e) {
+                String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                if (message != null && message.contains(EXCLUSION_CONSTRAINT)) {
+                    throw new ConflictException("Some of the items are already booked for this time.");
+                }
+                throw e;
+            }
+        }
+
+        // items are locked in id order, so two batches sharing items cannot deadlock
+        bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .sorted()
+                .forEach(itemRepository::findByIdForUpdate);
+        for (Booking booking : bookings) {
+            Long itemId = booking.getItem().getId();
+            if (bookingRepository.existsOverlapping(itemId, BLOCKING_STATUSES, booking.getStart(), booking.getEnd())) {
+                throw overlap(itemId);
+            }
+        }
+        return bookingRepository.saveAll(bookings);
+    }
+
+    private void checkEachOther(List<Booking> bookings) {
+        Map<Long, List<Booking>> bookingsByItemId = bookings.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+
+        bookingsByItemId.forEach((itemId, itemBookings) -> {
+            itemBookings.sort(Comparator.comparing(Booking::getStart));
+            LocalDateTime end = null;
+            for (Booking booking : itemBookings) {
+                if (end != null && booking.getStart().isBefore(end)) {
+                    throw overlap(itemId);
+                }
+                if (end == null || booking.getEnd().isAfter(end)) {
+                    end = booking.getEnd();
+                }
+            }
+        });
+    }
+
+    private ConflictException overlap(Long itemId) {
+        return new ConflictException("Item with id=" + itemId + " is already booked for this time.");
+    }
+
+}
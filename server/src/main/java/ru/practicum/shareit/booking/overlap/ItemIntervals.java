@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking.overlap;
+
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable {@code [start, end)} booking intervals of one item sorted by start, with the running maximum end.
+ * An interval overlaps one of them iff the maximum end among intervals starting before its end is after its start.
+ */
+public final class ItemIntervals {
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] ids;
+    private final long[] maxEnds;
+
+    private ItemIntervals(long[] starts, long[] ends, long[] ids) {
+        this.starts = starts;
+        this.ends = ends;
+        this.ids = ids;
+        this.maxEnds = new long[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            maxEnds[i] = i > 0 ? Math.max(maxEnds[i - 1], ends[i]) : ends[i];
+        }
+    }
+
+    public static ItemIntervals of(List<ItemBookingView> bookings) {
+        List<ItemBookingView> sorted = new ArrayList<>(bookings);
+        sorted.sort(Comparator.comparing(ItemBookingView::getStart));
+        int size = sorted.size();
+        long[] starts = new long[size];
+        long[] ends = new long[size];
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ItemBookingView booking = sorted.get(i);
+            starts[i] = toEpochNanos(booking.getStart());
+            ends[i] = toEpochNanos(booking.getEnd());
+            ids[i] = booking.getId();
+        }
+        return new ItemIntervals(starts, ends, ids);
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        long startNanos = toEpochNanos(start);
+        int startedBeforeEnd = lowerBound(toEpochNanos(end));
+        return startedBeforeEnd > 0 && maxEnds[startedBeforeEnd - 1] > startNanos;
+    }
+
+    public ItemIntervals with(long id, LocalDateTime start, LocalDateTime end) {
+        if (indexOf(id) >= 0) {
+            return this;
+        }
+        long startNanos = toEpochNanos(start);
+        int position = lowerBound(startNanos);
+
+        return new ItemIntervals(insert(starts, position, startNanos), insert(ends, position, toEpochNanos(end)),
+                insert(ids, position, id));
+    }
+
+    public ItemIntervals without(long id) {
+        int position = indexOf(id);
+        if (position < 0) {
+            return this;
+        }
+        return new ItemIntervals(remove(starts, position), remove(ends, position), remove(ids, position));
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    private int indexOf(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int lowerBound(long value) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long[] insert(long[] array, int position, long value) {
+        long[] result = Arrays.copyOf(array, array.length + 1);
+        System.arraycopy(array, position, result, position + 1, array.length - position);
+        result[position] = value;
+        return result;
+    }
+
+    private static long[] remove(long[] array, int position) {
+        long[] result = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, position + 1, result, position, array.length - position - 1);
+        return result;
+    }
+
+    private static long toEpochNanos(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+}
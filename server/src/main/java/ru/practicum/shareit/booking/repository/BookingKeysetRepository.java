@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.util.BookingCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingKeysetRepository {
+
+    List<BookingDto> findBookerPage(Long bookerId, BookingState state, LocalDateTime dateTime,
+                                    BookingCursor after, int size);
+
+    List<BookingDto> findOwnerPage(Long ownerId, BookingState state, LocalDateTime dateTime,
+                                   BookingCursor after, int size);
+
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.util.BookingCursor;
+import ru.practicum.shareit.exception.UnsupportedStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Seeks past the (start, id) of the previous page instead of skipping rows with OFFSET,
+ * so every page is a range scan on the (booker_id | item_id, start_date, id) indexes.
+ */
+public class BookingKeysetRepositoryImpl implements BookingKeysetRepository {
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<BookingDto> findBookerPage(Long bookerId, BookingState state, LocalDateTime dateTime,
+                                           BookingCursor after, int size) {
+        return findPage((item, booker) -> booker.get("id"), bookerId, state, dateTime, after, size);
+    }
+
+    @Override
+    public List<BookingDto> findOwnerPage(Long ownerId, BookingState state, LocalDateTime dateTime,
+                                          BookingCursor after, int size) {
+        return findPage((item, booker) -> item.get("owner").get("id"), ownerId, state, dateTime, after, size);
+    }
+
+    private List<BookingDto> findPage(BiFunction<Join<Booking, Item>, Join<Booking, User>, Path<Long>> userPath,
+                                      Long userId, BookingState state, LocalDateTime dateTime, BookingCursor after,
+                                      int size) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<BookingDto> query = cb.createQuery(BookingDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Booking, User> booker = booking.join("booker");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(userPath.apply(item, booker), userId));
+
+        switch (state) {
+            case ALL:
+                break;
+            case CURRENT:
+                predicates.add(cb.lessThan(start, dateTime));
+                predicates.add(cb.greaterThan(end, dateTime));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, dateTime));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, dateTime));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                break;
+            default:
+                throw new UnsupportedStatus("Unknown state: " + state);
+        }
+
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, after.getStart()),
+                    cb.and(cb.equal(start, after.getStart()), cb.lessThan(id, after.getId()))));
+        }
+
+        query.select(cb.construct(BookingDto.class, id, start, end, booking.get("status"),
+                        item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                        item.get("request").get("id"), booker.get("id"), booker.get("name"), booker.get("email")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+
+        return em.createQuery(query)
+                .setMaxResults(size)
+                .getResultList();
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Offset-paged booking lists behind {@code GET /bookings} and {@code GET /bookings/owner}. The implementation
+ * is chosen with the {@code shareit.booking.list.repository} property.
+ */
+public interface BookingListRepository {
+
+    List<BookingDto> findBookerBookings(Long bookerId, Pageable pageable);
+
+    List<BookingDto> findBookerCurrentBookings(Long bookerId, LocalDateTime dateTime, Pageable pageable);
+
+    List<BookingDto> findBookerFutureBookings(Long bookerId, LocalDateTime dateTime, Pageable pageable);
+
+    List<BookingDto> findBookerPastBookings(Long bookerId, LocalDateTime dateTime, Pageable pageable);
+
+    List<BookingDto> findBookerBookingsByStatus(Long bookerId, BookingStatus status, Pageable pageable);
+
+    List<BookingDto> findOwnerBookings(Long ownerId, Pageable pageable);
+
+    List<BookingDto> findOwnerCurrentBookings(Long ownerId, LocalDateTime dateTime, Pageable pageable);
+
+    List<BookingDto> findOwnerFutureBookings(Long ownerId, LocalDateTime dateTime, Pageable pageable);
+
+    List<BookingDto> findOwnerPastBookings(Long ownerId, LocalDateTime dateTime, Pageable pageable);
+
+    List<BookingDto> findOwnerBookingsByStatus(Long ownerId, BookingStatus status, Pageable pageable);
+
+}
@@ -1,51 +1,85 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static ru.practicum.shareit.export.ExportWriter.EXPORT_FETCH_SIZE;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query(" select b from Booking b join User as u on b.booker = u.id " +
-            "where u.id = ?1 order by b.start desc")
-    List<Booking> getAllBookingsById(Long idUser, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingKeysetRepository {
+    String BOOKING_DTO = "select new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.request.id, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u ";
+
+    @Override
+    @EntityGraph("Booking.itemAndBooker")
+    Optional<Booking> findById(Long id);
+
+    @Query(BOOKING_DTO + "where u.id = ?1 order by b.start desc")
+    List<BookingDto> findBookerBookings(Long bookerId, Pageable pageable);
+
+    @Query(BOOKING_DTO + "where u.id = ?1 and b.start < ?2 and b.end > ?2 order by b.start desc")
+    List<BookingDto> findBookerCurrentBookings(Long bookerId, LocalDateTime dateTime, Pageable pageable);
+
+    @Query(BOOKING_DTO + "where u.id = ?1 and b.start > ?2 order by b.start desc")
+    List<BookingDto> findBookerFutureBookings(Long bookerId, LocalDateTime dateTime, Pageable pageable);
 
-    List<Booking> findDByBookerAndStartBeforeAndEndAfterOrderByStartDesc(User booker,
-                                                                         LocalDateTime dateTime,
-                                                                         LocalDateTime dateTime2,
-                                                                         Pageable pageable);
+    @Query(BOOKING_DTO + "where u.id = ?1 and b.end < ?2 order by b.start desc")
+    List<BookingDto> findBookerPastBookings(Long bookerId, LocalDateTime dateTime, Pageable pageable);
 
-    List<Booking> findDByBookerAndStartAfterOrderByStartDesc(User booker, LocalDateTime dateTime, Pageable pageable);
+    @Query(BOOKING_DTO + "where u.id = ?1 and b.status = ?2 order by b.start desc")
+    List<BookingDto> findBookerBookingsByStatus(Long bookerId, BookingStatus status, Pageable pageable);
 
-    List<Booking> findDByBookerAndEndBeforeOrderByStartDesc(User booker, LocalDateTime dateTime, Pageable pageable);
+    @Query(BOOKING_DTO + "where i.owner.id = ?1 order by b.start desc")
+    List<BookingDto> findOwnerBookings(Long ownerId, Pageable pageable);
 
-    List<Booking> findDByBookerAndStatusOrderByStartDesc(User booker, BookingStatus status, Pageable pageable);
+    @Query(BOOKING_DTO + "where i.owner.id = ?1 and b.start < ?2 and b.end > ?2 order by b.start desc")
+    List<BookingDto> findOwnerCurrentBookings(Long ownerId, LocalDateTime dateTime, Pageable pageable);
 
-    List<Booking> findDByItemInOrderByStartDesc(List<Item> items, Pageable pageable);
+    @Query(BOOKING_DTO + "where i.owner.id = ?1 and b.start > ?2 order by b.start desc")
+    List<BookingDto> findOwnerFutureBookings(Long ownerId, LocalDateTime dateTime, Pageable pageable);
 
-    List<Booking> findDByItemInAndStartBeforeAndEndAfterOrderByStartDesc(List<Item> items,
-                                                                         LocalDateTime dateTime,
-                                                                         LocalDateTime dateTime2,
-                                                                         Pageable pageable);
+    @Query(BOOKING_DTO + "where i.owner.id = ?1 and b.end < ?2 order by b.start desc")
+    List<BookingDto> findOwnerPastBookings(Long ownerId, LocalDateTime dateTime, Pageable pageable);
 
-    List<Booking> findDByItemInAndStartAfterOrderByStartDesc(List<Item> items, LocalDateTime dateTime, Pageable pageable);
+    @Query(BOOKING_DTO + "where i.owner.id = ?1 and b.status = ?2 order by b.start desc")
+    List<BookingDto> findOwnerBookingsByStatus(Long ownerId, BookingStatus status, Pageable pageable);
 
-    List<Booking> findDByItemInAndEndBeforeOrderByStartDesc(List<Item> items, LocalDateTime dateTime, Pageable pageable);
+    @Query(BOOKING_DTO + "order by b.id")
+    @QueryHints(@QueryHint(name = FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    Stream<BookingDto> streamAll();
 
-    List<Booking> findDByItemInAndStatusOrderByStartDesc(List<Item> items, BookingStatus status, Pageable pageable);
+    @Query("select b.item.id as itemId, b.id as id, b.booker.id as bookerId, b.start as start, b.end as end " +
+            "from Booking b where b.item.id in ?1 and b.status = ?2")
+    List<ItemBookingView> findTimelineBookings(Collection<Long> itemIds, BookingStatus status);
 
-    List<Booking> findDByItemAndStatusAndStartBeforeOrderByEndDesc(Item item, BookingStatus status, LocalDateTime dateTime);
+    @Query("select b.item.id as itemId, b.id as id, b.booker.id as bookerId, b.start as start, b.end as end " +
+            "from Booking b where b.item.id = ?1 and b.status in ?2")
+    List<ItemBookingView> findIntervalBookings(Long itemId, Collection<BookingStatus> statuses);
 
-    List<Booking> findDByItemAndStatusAndStartAfterOrderByStartAsc(Item item, BookingStatus status, LocalDateTime dateTime);
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.item.id = ?1 and b.status in ?2 and b.start < ?4 and b.end > ?3")
+    boolean existsOverlapping(Long itemId, Collection<BookingStatus> statuses, LocalDateTime start,
+                              LocalDateTime end);
 
+    @EntityGraph(attributePaths = "booker")
     @Query("select b from Booking as b join User as u on b.booker = u.id " +
             "where b.item = ?1 and b.status = ?2 and u.id = ?3 and b.end < ?4")
     List<Booking> findBookingsByItem(Item item, BookingStatus status, Long idUser, LocalDateTime dateTime);
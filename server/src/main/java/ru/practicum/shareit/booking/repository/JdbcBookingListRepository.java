@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Hand-written SQL mapped straight to {@link BookingDto}, without JPQL translation or the persistence context.
+ * Pending entity changes are flushed first in a read-write transaction, as a JPA query would do.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.list.repository", havingValue = "jdbc")
+public class JdbcBookingListRepository implements BookingListRepository {
+    private static final String SELECT = "select b.id, b.start_date, b.end_date, b.status, " +
+            "i.id as item_id, i.name as item_name, i.description as item_description, " +
+            "i.available as item_available, i.request_id as item_request_id, " +
+            "u.id as booker_id, u.name as booker_name, u.email as booker_email " +
+            "from bookings b join items i on i.id = b.item_id join users u on u.id = b.booker_id ";
+    private static final String BOOKER = SELECT + "where b.booker_id = :userId ";
+    private static final String OWNER = SELECT + "where i.owner_id = :userId ";
+    private static final String CURRENT = "and b.start_date < :dateTime and b.end_date > :dateTime ";
+    private static final String FUTURE = "and b.start_date > :dateTime ";
+    private static final String PAST = "and b.end_date < :dateTime ";
+    private static final String BY_STATUS = "and b.status = :status ";
+    private static final String PAGE = "order by b.start_date desc limit :limit offset :offset";
+
+    private static final RowMapper<BookingDto> BOOKING_DTO = (rs, rowNum) -> new BookingDto(
+            rs.getLong("id"),
+            rs.getObject("start_date", LocalDateTime.class),
+            rs.getObject("end_date", LocalDateTime.class),
+            BookingStatus.valueOf(rs.getString("status")),
+            rs.getLong("item_id"),
+            rs.getString("item_name"),
+            rs.getString("item_description"),
+            rs.getObject("item_available", Boolean.class),
+            rs.getObject("item_request_id", Long.class),
+            rs.getLong("booker_id"),
+            rs.getString("booker_name"),
+            rs.getString("booker_email"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public List<BookingDto> findBookerBookings(Long bookerId, Pageable pageable) {
+        return query(BOOKER + PAGE, params(bookerId, pageable));
+    }
+
+    @Override
+    public List<BookingDto> findBookerCurrentBookings(Long bookerId, LocalDateTime dateTime, Pageable pageable) {
+        return query(BOOKER + CURRENT + PAGE, params(bookerId, pageable).addValue("dateTime", dateTime));
+    }
+
+    @Override
+    public List<BookingDto> findBookerFutureBookings(Long bookerId, LocalDateTime dateTime, Pageable pageable) {
+        return query(BOOKER + FUTURE + PAGE, params(bookerId, pageable).addValue("dateTime", dateTime));
+    }
+
+    @Override
+    public List<BookingDto> findBookerPastBookings(Long bookerId, LocalDateTime dateTime, Pageable pageable) {
+        return query(BOOKER + PAST + PAGE, params(bookerId, pageable).addValue("dateTime", dateTime));
+    }
+
+    @Override
+    public List<BookingDto> findBookerBookingsByStatus(Long bookerId, BookingStatus status, Pageable pageable) {
+        return query(BOOKER + BY_STATUS + PAGE, params(bookerId, pageable).addValue("status", status.name()));
+    }
+
+    @Override
+    public List<BookingDto> findOwnerBookings(Long ownerId, Pageable pageable) {
+        return query(OWNER + PAGE, params(ownerId, pageable));
+    }
+
+    @Override
+    public List<BookingDto> findOwnerCurrentBookings(Long ownerId, LocalDateTime dateTime, Pageable pageable) {
+        return query(OWNER + CURRENT + PAGE, params(ownerId, pageable).addValue("dateTime", dateTime));
+    }
+
+    @Override
+    public List<BookingDto> findOwnerFutureBookings(Long ownerId, LocalDateTime dateTime, Pageable pageable) {
+        return query(OWNER + FUTURE + PAGE, params(ownerId, pageable).addValue("dateTime", dateTime));
+    }
+
+    @Override
+    public List<BookingDto> findOwnerPastBookings(Long ownerId, LocalDateTime dateTime, Pageable pageable) {
+        return query(OWNER + PAST + PAGE, params(ownerId, pageable).addValue("dateTime", dateTime));
+    }
+
+    @Override
+    public List<BookingDto> findOwnerBookingsByStatus(Long ownerId, BookingStatus status, Pageable pageable) {
+        return query(OWNER + BY_STATUS + PAGE, params(ownerId, pageable).addValue("status", status.name()));
+    }
+
+    private List<BookingDto> query(String sql, MapSqlParameterSource params) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            entityManager.flush();
+        }
+        return jdbcTemplate.query(sql, params, BOOKING_DTO);
+    }
+
+    private static MapSqlParameterSource params(Long userId, Pageable pageable) {
+        return new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+    }
+
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JPQL constructor projections of {@link BookingRepository}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.list.repository", havingValue = "jpa", matchIfMissing = true)
+public class JpaBookingListRepository implements BookingListRepository {
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public List<BookingDto> findBookerBookings(Long bookerId, Pageable pageable) {
+        return bookingRepository.findBookerBookings(bookerId, pageable);
+    }
+
+    @Override
+    public List<BookingDto> findBookerCurrentBookings(Long bookerId, LocalDateTime dateTime, Pageable pageable) {
+        return bookingRepository.findBookerCurrentBookings(bookerId, dateTime, pageable);
+    }
+
+    @Override
+    public List<BookingDto> findBookerFutureBookings(Long bookerId, LocalDateTime dateTime, Pageable pageable) {
+        return bookingRepository.findBookerFutureBookings(bookerId, dateTime, pageable);
+    }
+
+    @Override
+    public List<BookingDto> findBookerPastBookings(Long bookerId, LocalDateTime dateTime, Pageable pageable) {
+        return bookingRepository.findBookerPastBookings(bookerId, dateTime, pageable);
+    }
+
+    @Override
+    public List<BookingDto> findBookerBookingsByStatus(Long bookerId, BookingStatus status, Pageable pageable) {
+        return bookingRepository.findBookerBookingsByStatus(bookerId, status, pageable);
+    }
+
+    @Override
+    public List<BookingDto> findOwnerBookings(Long ownerId, Pageable pageable) {
+        return bookingRepository.findOwnerBookings(ownerId, pageable);
+    }
+
+    @Override
+    public List<BookingDto> findOwnerCurrentBookings(Long ownerId, LocalDateTime dateTime, Pageable pageable) {
+        return bookingRepository.findOwnerCurrentBookings(ownerId, dateTime, pageable);
+    }
+
+    @Override
+    public List<BookingDto> findOwnerFutureBookings(Long ownerId, LocalDateTime dateTime, Pageable pageable) {
+        return bookingRepository.findOwnerFutureBookings(ownerId, dateTime, pageable);
+    }
+
+    @Override
+    public List<BookingDto> findOwnerPastBookings(Long ownerId, LocalDateTime dateTime, Pageable pageable) {
+        return bookingRepository.findOwnerPastBookings(ownerId, dateTime, pageable);
+    }
+
+    @Override
+    public List<BookingDto> findOwnerBookingsByStatus(Long ownerId, BookingStatus status, Pageable pageable) {
+        return bookingRepository.findOwnerBookingsByStatus(ownerId, status, pageable);
+    }
+
+}
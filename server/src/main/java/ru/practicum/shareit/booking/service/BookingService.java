@@ -2,13 +2,18 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.export.ExportFormat;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface BookingService {
 
     BookingDto create(Long userId, BookingShortDto bookingDto);
 
+    List<BookingDto> createAll(Long userId, List<BookingShortDto> bookingDtos);
+
     BookingDto approve(Long userId, Long bookingId, Boolean approved);
 
     BookingDto findById(Long userId, Long bookingId);
@@ -17,4 +22,10 @@ public interface BookingService {
 
     List<BookingDto> findAllBookingsOfItems(Long userId, String text, Integer from, Integer size);
 
+    List<BookingDto> findBookingsMadeByUserAfter(Long userId, String text, String cursor, Integer size);
+
+    List<BookingDto> findBookingsOfItemsAfter(Long userId, String text, String cursor, Integer size);
+
+    void export(ExportFormat format, OutputStream out) throws IOException;
+
 }
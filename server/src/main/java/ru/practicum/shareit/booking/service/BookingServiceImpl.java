@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,31 +10,66 @@ import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.event.BookingApprovedEvent;
+import ru.practicum.shareit.booking.event.BookingCreatedEvent;
+import ru.practicum.shareit.booking.event.BookingRejectedEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.overlap.BookingOverlapGuard;
+import ru.practicum.shareit.booking.repository.BookingListRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.util.BookingCursor;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.TimeDataException;
 import ru.practicum.shareit.exception.UnsupportedStatus;
+import ru.practicum.shareit.export.ExportColumn;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.export.ExportWriter;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.util.BatchSize.checkBatchSize;
 
 @Slf4j
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final List<ExportColumn<BookingDto>> EXPORT_COLUMNS = List.of(
+            ExportColumn.of("id", BookingDto::getId),
+            ExportColumn.of("start", BookingDto::getStart),
+            ExportColumn.of("end", BookingDto::getEnd),
+            ExportColumn.of("status", BookingDto::getStatus),
+            ExportColumn.of("itemId", booking -> booking.getItem().getId()),
+            ExportColumn.of("itemName", booking -> booking.getItem().getName()),
+            ExportColumn.of("bookerId", booking -> booking.getBooker().getId()),
+            ExportColumn.of("bookerEmail", booking -> booking.getBooker().getEmail()));
+
     public final BookingRepository bookingRepository;
     public final UserRepository userRepository;
     public final ItemRepository itemRepository;
+    private final BookingListRepository bookingListRepository;
+    private final UserExistenceCache userExistenceCache;
     private final BookingMapper bookingMapper;
+    private final BookingOverlapGuard bookingOverlapGuard;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExportWriter exportWriter;
 
     @Transactional
     public BookingDto create(Long userId, BookingShortDto bookingDto) {
@@ -47,13 +83,50 @@ public class BookingServiceImpl implements BookingService {
         checkIsAvailableItem(item);
 
         Booking newBooking = bookingMapper.toBooking(bookingDto, user, item, BookingStatus.WAITING);
-        Booking booking = bookingRepository.save(newBooking);
+        Booking booking = bookingOverlapGuard.save(newBooking);
+        eventPublisher.publishEvent(
+                new BookingCreatedEvent(booking.getId(), item.getId(), booking.getStart(), booking.getEnd()));
 
         log.info("Created booking with id={}.", booking.getId());
 
         return bookingMapper.toBookingDto(booking);
     }
 
+    @Transactional
+    public List<BookingDto> createAll(Long userId, List<BookingShortDto> bookingDtos) {
+        checkBatchSize(bookingDtos);
+        bookingDtos.forEach(this::checkBookingDate);
+
+        User user = checkUserInDb(userId);
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(BookingShortDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<Booking> newBookings = new ArrayList<>();
+        for (BookingShortDto bookingDto : bookingDtos) {
+            Item item = items.get(bookingDto.getItemId());
+            if (item == null) {
+                throw new NotFoundException("Item with id=" + bookingDto.getItemId() + " not found.");
+            }
+            checkBookerIsOwner(userId, item);
+            checkIsAvailableItem(item);
+            newBookings.add(bookingMapper.toBooking(bookingDto, user, item, BookingStatus.WAITING));
+        }
+
+        List<Booking> bookings = bookingOverlapGuard.saveAll(newBookings);
+        bookings.forEach(booking -> eventPublisher.publishEvent(new BookingCreatedEvent(
+                booking.getId(), booking.getItem().getId(), booking.getStart(), booking.getEnd())));
+
+        log.info("Created {} bookings made by user with id={}.", bookings.size(), userId);
+
+        return bookings.stream()
+                .map(bookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public BookingDto approve(Long userId, Long bookingId, Boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
@@ -63,8 +136,11 @@ public class BookingServiceImpl implements BookingService {
             if (booking.getItem().getOwner().getId().equals(userId)) {
                 if (approved) {
                     booking.setStatus(BookingStatus.APPROVED);
+                    eventPublisher.publishEvent(new BookingApprovedEvent(booking.getId(), booking.getItem().getId(),
+                            booking.getBooker().getId(), booking.getStart(), booking.getEnd()));
                 } else {
                     booking.setStatus(BookingStatus.REJECTED);
+                    eventPublisher.publishEvent(new BookingRejectedEvent(booking.getId(), booking.getItem().getId()));
                 }
             } else {
                 throw new NotFoundException("User with id=" + userId + " is not the owner of item with id="
@@ -90,95 +166,121 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingDto> findAllBookingsMadeByUser(Long userId, String stateText, Integer from, Integer size) {
         BookingState state = BookingState.getStateFromText(stateText);
         LocalDateTime dateTime = LocalDateTime.now();
-        List<Booking> bookingList;
-        User user = checkUserInDb(userId);
+        List<BookingDto> bookingList;
+        checkUserInDb(userId);
         int start = from / size;
         PageRequest page = PageRequest.of(start, size);
 
         switch (state) {
             case ALL:
-                bookingList = bookingRepository.getAllBookingsById(userId, page);
+                bookingList = bookingListRepository.findBookerBookings(userId, page);
                 log.info("Found all bookings with state 'ALL' made by user with id={}.", userId);
                 break;
             case CURRENT:
-                bookingList = bookingRepository.findDByBookerAndStartBeforeAndEndAfterOrderByStartDesc(
-                        user, dateTime, dateTime, page);
+                bookingList = bookingListRepository.findBookerCurrentBookings(userId, dateTime, page);
                 log.info("Found all bookings with state 'CURRENT' made by user with id={}.", userId);
                 break;
             case FUTURE:
-                bookingList = bookingRepository.findDByBookerAndStartAfterOrderByStartDesc(user, dateTime, page);
+                bookingList = bookingListRepository.findBookerFutureBookings(userId, dateTime, page);
                 log.info("Found all bookings with state 'FUTURE' made by user with id={}.", userId);
                 break;
             case PAST:
-                bookingList = bookingRepository.findDByBookerAndEndBeforeOrderByStartDesc(user, dateTime, page);
+                bookingList = bookingListRepository.findBookerPastBookings(userId, dateTime, page);
                 log.info("Found all bookings with state 'PAST' made by user with id={}.", userId);
                 break;
             case WAITING:
-                bookingList = bookingRepository.findDByBookerAndStatusOrderByStartDesc(
-                        user, BookingStatus.WAITING, page);
+                bookingList = bookingListRepository.findBookerBookingsByStatus(userId, BookingStatus.WAITING, page);
                 log.info("Found all bookings with state 'WAITING' made by user with id={}.", userId);
                 break;
             case REJECTED:
-                bookingList = bookingRepository.findDByBookerAndStatusOrderByStartDesc(
-                        user, BookingStatus.REJECTED, page);
+                bookingList = bookingListRepository.findBookerBookingsByStatus(userId, BookingStatus.REJECTED, page);
                 log.info("Found all bookings with state 'REJECTED' made by user with id={}.", userId);
                 break;
             default:
                 throw new UnsupportedStatus("Unsupported status (unknown state of booking).");
         }
 
-        return bookingList.stream()
-                .map(bookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+        return bookingList;
     }
 
     public List<BookingDto> findAllBookingsOfItems(Long userId, String text, Integer start, Integer size) {
         BookingState state = BookingState.getStateFromText(text);
         LocalDateTime dateTime = LocalDateTime.now();
-        List<Booking> bookingList;
+        List<BookingDto> bookingList;
         checkUserInDb(userId);
         int from = start / size;
         PageRequest page = PageRequest.of(from, size);
-        List<Item> items = itemRepository.findByOwnerId(userId);
 
-        if (items.size() > 0) {
+        if (itemRepository.existsByOwnerId(userId)) {
             switch (state) {
                 case ALL:
-                    bookingList = bookingRepository.findDByItemInOrderByStartDesc(items, page);
+                    bookingList = bookingListRepository.findOwnerBookings(userId, page);
                     log.info("Found all bookings with state 'ALL' of their owner's items, ownerId={}.", userId);
                     break;
                 case CURRENT:
-                    bookingList = bookingRepository.findDByItemInAndStartBeforeAndEndAfterOrderByStartDesc(
-                            items, dateTime, dateTime, page);
+                    bookingList = bookingListRepository.findOwnerCurrentBookings(userId, dateTime, page);
                     log.info("Found all bookings with state 'CURRENT' of their owner's items, ownerId={}.", userId);
                     break;
                 case FUTURE:
-                    bookingList = bookingRepository.findDByItemInAndStartAfterOrderByStartDesc(items, dateTime, page);
+                    bookingList = bookingListRepository.findOwnerFutureBookings(userId, dateTime, page);
                     log.info("Found all bookings with state 'FUTURE' of their owner's items, ownerId={}.", userId);
                     break;
                 case PAST:
-                    bookingList = bookingRepository.findDByItemInAndEndBeforeOrderByStartDesc(items, dateTime, page);
+                    bookingList = bookingListRepository.findOwnerPastBookings(userId, dateTime, page);
                     log.info("Found all bookings with state 'PAST' of their owner's items, ownerId={}.", userId);
                     break;
                 case WAITING:
-                    bookingList = bookingRepository.findDByItemInAndStatusOrderByStartDesc(
-                            items, BookingStatus.WAITING, page);
+                    bookingList = bookingListRepository.findOwnerBookingsByStatus(userId, BookingStatus.WAITING, page);
                     log.info("Found all bookings with state 'WAITING' of their owner's items, ownerId={}.", userId);
                     break;
                 case REJECTED:
-                    bookingList = bookingRepository.findDByItemInAndStatusOrderByStartDesc(
-                            items, BookingStatus.REJECTED, page);
+                    bookingList = bookingListRepository.findOwnerBookingsByStatus(userId, BookingStatus.REJECTED, page);
                     log.info("Found all bookings with state 'REJECTED' of their owner's items, ownerId={}.", userId);
                     break;
                 default:
                     throw new UnsupportedStatus("Unknown state: " + state);
             }
-            return bookingList.stream()
-                    .map(bookingMapper::toBookingDto)
-                    .collect(Collectors.toList());
+            return bookingList;
         } else throw new BadRequestException("У пользователя нет ни одной вещи!");
     }
 
+    public List<BookingDto> findBookingsMadeByUserAfter(Long userId, String text, String cursor, Integer size) {
+        BookingState state = BookingState.getStateFromText(text);
+        BookingCursor after = BookingCursor.decode(cursor);
+        checkUserInDb(userId);
+
+        List<BookingDto> bookingList = bookingRepository.findBookerPage(userId, state, LocalDateTime.now(), after,
+                size);
+        log.info("Found {} bookings with state '{}' made by user with id={} after cursor.",
+                bookingList.size(), state, userId);
+
+        return bookingList;
+    }
+
+    public List<BookingDto> findBookingsOfItemsAfter(Long userId, String text, String cursor, Integer size) {
+        BookingState state = BookingState.getStateFromText(text);
+        BookingCursor after = BookingCursor.decode(cursor);
+        checkUserInDb(userId);
+
+        if (!itemRepository.existsByOwnerId(userId)) {
+            throw new BadRequestException("У пользователя нет ни одной вещи!");
+        }
+
+        List<BookingDto> bookingList = bookingRepository.findOwnerPage(userId, state, LocalDateTime.now(), after,
+                size);
+        log.info("Found {} bookings with state '{}' of their owner's items after cursor, ownerId={}.",
+                bookingList.size(), state, userId);
+
+        return bookingList;
+    }
+
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<BookingDto> bookings = bookingRepository.streamAll()) {
+            long count = exportWriter.write(bookings, format, EXPORT_COLUMNS, out);
+            log.info("Exported {} bookings as {}.", count, format);
+        }
+    }
+
     private void checkIsAvailableItem(Item item) {
         if (!item.getAvailable()) {
             throw new BadRequestException("Item with id=" + item.getId() + " is not available.");
@@ -193,8 +295,10 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private User checkUserInDb(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id=" + userId + " is not found."));
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundException("User with id=" + userId + " is not found.");
+        }
+        return userRepository.getReferenceById(userId);
     }
 
     private void checkBookerIsOwner(Long userId, Item item) {
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking.timeline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.event.BookingApprovedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Approved bookings per item, loaded lazily in batches and kept up to date after approvals commit.
+ * Holds the timelines of at most {@code shareit.booking.timeline.max-items} items, evicting the least recently
+ * read. Timelines are loaded from the primary and are immutable and replaced per item, so the lock is only held
+ * to look them up.
+ */
+@Slf4j
+@Component
+public class BookingTimeline {
+    private final BookingRepository bookingRepository;
+    private final PrimaryReads primaryReads;
+    private final Map<Long, ItemTimeline> timelines;
+    private final AtomicLong version = new AtomicLong();
+
+    public BookingTimeline(BookingRepository bookingRepository, PrimaryReads primaryReads,
+                           @Value("${shareit.booking.timeline.max-items}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.primaryReads = primaryReads;
+        this.timelines = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemTimeline> eldest) {
+                return size() > maxItems;
+            }
+        };
+    }
+
+    public Map<Long, ItemTimeline> findByItemIds(Collection<Long> itemIds) {
+        Map<Long, ItemTimeline> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        synchronized (timelines) {
+            for (Long itemId : itemIds) {
+                ItemTimeline timeline = timelines.get(itemId);
+                if (timeline != null) {
+                    result.put(itemId, timeline);
+                } else {
+                    missing.add(itemId);
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long loadVersion = version.get();
+            Map<Long, List<ItemBookingView>> bookingsByItemId = primaryReads
+                    .read(() -> bookingRepository.findTimelineBookings(missing, BookingStatus.APPROVED)).stream()
+                    .collect(Collectors.groupingBy(ItemBookingView::getItemId));
+
+            synchronized (timelines) {
+                for (Long itemId : missing) {
+                    ItemTimeline loaded = ItemTimeline.of(bookingsByItemId.getOrDefault(itemId, List.of()));
+                    ItemTimeline existing = timelines.get(itemId);
+                    if (existing != null) {
+                        result.put(itemId, existing);
+                        continue;
+                    }
+                    // An approval committed while loading may be missing from the result, so keep it out of the cache
+                    if (version.get() == loadVersion) {
+                        timelines.put(itemId, loaded);
+                    }
+                    result.put(itemId, loaded);
+                }
+            }
+            log.debug("Loaded booking timelines of {} items.", missing.size());
+        }
+
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onBookingApproved(BookingApprovedEvent event) {
+        synchronized (timelines) {
+            version.incrementAndGet();
+            timelines.computeIfPresent(event.getItemId(), (id, timeline) ->
+                    timeline.with(event.getId(), event.getBookerId(), event.getStart(), event.getEnd()));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        // Deleting a user cascades to their items and bookings, which may sit on any item's timeline
+        synchronized (timelines) {
+            version.incrementAndGet();
+            timelines.clear();
+        }
+    }
+
+}
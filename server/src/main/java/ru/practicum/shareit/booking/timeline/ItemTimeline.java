@@ -0,0 +1,131 @@
+package ru.practicum.shareit.booking.timeline;
+
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable approved bookings of one item sorted by start. {@code lastEnd[i]} is the index of the booking
+ * with the latest end among the first {@code i + 1}, so both last and next are a single binary search.
+ */
+public final class ItemTimeline {
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] ids;
+    private final long[] bookerIds;
+    private final int[] lastEnd;
+
+    private ItemTimeline(long[] starts, long[] ends, long[] ids, long[] bookerIds) {
+        this.starts = starts;
+        this.ends = ends;
+        this.ids = ids;
+        this.bookerIds = bookerIds;
+        this.lastEnd = new int[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            lastEnd[i] = i > 0 && ends[lastEnd[i - 1]] >= ends[i] ? lastEnd[i - 1] : i;
+        }
+    }
+
+    public static ItemTimeline of(List<ItemBookingView> bookings) {
+        List<ItemBookingView> sorted = new ArrayList<>(bookings);
+        sorted.sort(Comparator.comparing(ItemBookingView::getStart));
+        int size = sorted.size();
+        long[] starts = new long[size];
+        long[] ends = new long[size];
+        long[] ids = new long[size];
+        long[] bookerIds = new long[size];
+        for (int i = 0; i < size; i++) {
+            ItemBookingView booking = sorted.get(i);
+            starts[i] = toEpochNanos(booking.getStart());
+            ends[i] = toEpochNanos(booking.getEnd());
+            ids[i] = booking.getId();
+            bookerIds[i] = booking.getBookerId();
+        }
+        return new ItemTimeline(starts, ends, ids, bookerIds);
+    }
+
+    public ItemTimeline with(long id, long bookerId, LocalDateTime start, LocalDateTime end) {
+        for (long existing : ids) {
+            if (existing == id) {
+                return this;
+            }
+        }
+        long startNanos = toEpochNanos(start);
+        int position = upperBound(startNanos);
+
+        return new ItemTimeline(insert(starts, position, startNanos), insert(ends, position, toEpochNanos(end)),
+                insert(ids, position, id), insert(bookerIds, position, bookerId));
+    }
+
+    /**
+     * Booking that started before {@code dateTime} and ends last.
+     */
+    public BookingInfoDto last(LocalDateTime dateTime) {
+        int started = lowerBound(toEpochNanos(dateTime));
+        return started == 0 ? null : toBookingInfoDto(lastEnd[started - 1]);
+    }
+
+    /**
+     * Earliest booking that starts after {@code dateTime}.
+     */
+    public BookingInfoDto next(LocalDateTime dateTime) {
+        int position = upperBound(toEpochNanos(dateTime));
+        return position == starts.length ? null : toBookingInfoDto(position);
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    private BookingInfoDto toBookingInfoDto(int index) {
+        return BookingInfoDto.builder()
+                .id(ids[index])
+                .bookerId(bookerIds[index])
+                .build();
+    }
+
+    private int lowerBound(long value) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(long value) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long[] insert(long[] array, int position, long value) {
+        long[] result = Arrays.copyOf(array, array.length + 1);
+        System.arraycopy(array, position, result, position + 1, array.length - position);
+        result[position] = value;
+        return result;
+    }
+
+    private static long toEpochNanos(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+}
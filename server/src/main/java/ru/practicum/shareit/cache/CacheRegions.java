@@ -0,0 +1,8 @@
+package ru.practicum.shareit.cache;
+
+public class CacheRegions {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+    public static final String REQUESTS = "requests";
+    public static final String ITEM_QUERIES = "item-queries";
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.regex.Pattern;
+
+/**
+ * Adds an ETag to the responses the gateway caches and answers a matching {@code If-None-Match} with 304, so the
+ * gateway revalidates an expired entry without the body being sent again. The body is still built to hash it.
+ * Other paths, the streamed exports among them, are never buffered.
+ */
+@Configuration
+public class EtagFilterConfig {
+    private static final Pattern CACHED_PATHS = Pattern.compile("/(items|users)/\\d+|/requests/all");
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                return !CACHED_PATHS.matcher(request.getRequestURI()).matches();
+            }
+        };
+        return new FilterRegistrationBean<>(filter);
+    }
+
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.cache;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds the in-process Ehcache regions of the Hibernate second-level cache from {@code shareit.cache.regions}.
+ * Each region is bounded by its number of entries and, when a ttl is set, expires entries after it.
+ * Hibernate fails to start if an entity or query names a region that is not configured.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        ConfigurationBuilder configuration = ConfigurationBuilder.newConfigurationBuilder();
+        for (Map.Entry<String, SecondLevelCacheProperties.Region> region : properties.getRegions().entrySet()) {
+            CacheConfigurationBuilder<Object, Object> cache = CacheConfigurationBuilder.newCacheConfigurationBuilder(
+                    Object.class, Object.class, ResourcePoolsBuilder.heap(region.getValue().getMaxEntries()));
+            if (region.getValue().getTtl() != null) {
+                cache = cache.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(region.getValue().getTtl()));
+            }
+            configuration = configuration.withCache(region.getKey(), cache);
+        }
+
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        // every application context gets a cache manager of its own
+        return provider.getCacheManager(URI.create("shareit:" + UUID.randomUUID()), configuration.build());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Hibernate keeps cached entities and queries up to date on its own writes, but deleting a user also deletes
+ * the user's items and requests, and the items of those requests, through ON DELETE CASCADE in the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheEvictor {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictEntityData(Item.class);
+        sessionFactory.getCache().evictEntityData(ItemRequest.class);
+        sessionFactory.getCache().evictQueryRegion(CacheRegions.ITEM_QUERIES);
+        log.info("Evicted cached items and requests after user with id={} was deleted.", event.getId());
+    }
+
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Hit ratio of every second-level cache region, next to the hit and miss counts that hibernate-micrometer
+ * publishes as {@code hibernate.second.level.cache.requests}. Bound once all singletons exist, because the
+ * entity manager factory waits for the schema migration, which itself records a metric.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics implements SmartInitializingSingleton {
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            Gauge.builder("shareit.cache.hit.ratio", statistics, s -> hitRatio(s.getCacheRegionStatistics(region)))
+                    .tag("region", region)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        if (region == null || region.getHitCount() + region.getMissCount() == 0) {
+            return Double.NaN;
+        }
+        return (double) region.getHitCount() / (region.getHitCount() + region.getMissCount());
+    }
+
+}
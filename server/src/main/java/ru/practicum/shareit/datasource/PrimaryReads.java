@@ -0,0 +1,46 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs the loads that fill long-lived caches on the primary, so a lagging replica can't leave its stale answer
+ * in a cache after it has caught up. A load inside a read-only transaction, which may already hold a replica
+ * connection, gets a transaction of its own. Without replicas loads run as they are.
+ */
+@Component
+public class PrimaryReads {
+    private final TransactionTemplate newTransaction;
+
+    public PrimaryReads(PlatformTransactionManager transactionManager,
+                        @Value("${shareit.datasource.replicas:}") String replicas) {
+        if (replicas.isEmpty()) {
+            newTransaction = null;
+        } else {
+            newTransaction = new TransactionTemplate(transactionManager);
+            newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            newTransaction.setReadOnly(true);
+        }
+    }
+
+    public static PrimaryReads withoutReplicas() {
+        return new PrimaryReads(null, "");
+    }
+
+    public <T> T read(Supplier<T> load) {
+        if (newTransaction == null) {
+            return load.get();
+        }
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return ReplicaRoutingDataSource.onPrimary(() -> newTransaction.execute(status -> load.get()));
+        }
+        return ReplicaRoutingDataSource.onPrimary(load);
+    }
+
+}
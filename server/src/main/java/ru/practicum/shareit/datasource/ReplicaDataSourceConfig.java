@@ -0,0 +1,75 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the single data source with {@link ReplicaRoutingDataSource} when {@code shareit.datasource.replicas}
+ * lists replica urls. Every pool starts from the {@code spring.datasource.hikari.*} settings and the driver and
+ * credentials of the primary; replicas only override the url, the pool name and the timeouts.
+ */
+@Configuration
+@ConditionalOnExpression("!'${shareit.datasource.replicas:}'.isEmpty()")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariConfig hikariConfig() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties,
+            HikariConfig hikariConfig,
+            @Value("${shareit.datasource.replicas}") List<String> replicaUrls,
+            @Value("${shareit.datasource.replica-check-interval}") Duration checkInterval,
+            @Value("${shareit.datasource.replica-timeout}") Duration checkTimeout,
+            @Value("${shareit.datasource.read-your-writes}") Duration readYourWrites) {
+        HikariDataSource primary = createPool(properties, hikariConfig, properties.determineUrl(), "primary");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String name = "replica-" + i;
+            HikariDataSource replica = createPool(properties, hikariConfig, replicaUrls.get(i).trim(), name);
+            replica.setInitializationFailTimeout(-1);
+            replica.setConnectionTimeout(checkTimeout.toMillis());
+            replicas.put(name, replica);
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas, checkInterval, checkTimeout, readYourWrites);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private static HikariDataSource createPool(DataSourceProperties properties, HikariConfig hikariConfig,
+                                               String url, String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        hikariConfig.copyStateTo(dataSource);
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(properties.determineUsername());
+        dataSource.setPassword(properties.determinePassword());
+        dataSource.setPoolName(name);
+        return dataSource;
+    }
+
+}
@@ -0,0 +1,255 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static ru.practicum.shareit.user.util.UserHeader.USER_HEADER;
+
+/**
+ * Sends connections of read-only transactions to a healthy replica and everything else to the primary.
+ * Replicas are checked in the background and a replica that fails is skipped until it passes a check again.
+ * A user who committed a write within the read-your-writes window keeps reading from the primary; writes older than
+ * the window are pruned in the background once per window. Reads that fill caches are pinned to the primary with
+ * {@link #onPrimary}, and a transaction that reads from a replica doesn't put anything into the second-level or
+ * query caches, so replica lag never outlives the replica in a cache.
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, because
+ * the transaction is only marked read-only after the transaction manager has asked for a connection.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final Duration checkTimeout;
+    private final long readYourWritesNanos;
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService checker;
+    private volatile List<String> healthyReplicas = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration checkInterval,
+                                    Duration checkTimeout, Duration readYourWrites) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.checkTimeout = checkTimeout;
+        this.readYourWritesNanos = readYourWrites.toNanos();
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::checkReplicas, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        if (readYourWritesNanos > 0) {
+            checker.scheduleWithFixedDelay(this::pruneWrites, readYourWritesNanos, readYourWritesNanos,
+                    TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String key = (String) determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            return primary.getConnection();
+        }
+
+        try {
+            return replicas.get(key).getConnection();
+        } catch (SQLException e) {
+            log.warn("Replica {} is unavailable, reading from primary: {}", key, e.getMessage());
+            markDown(key);
+            evictConnections(replicas.get(key));
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = getUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit(userId);
+            return PRIMARY;
+        }
+
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty() || PINNED_TO_PRIMARY.get() != null || wroteRecently(userId)) {
+            return PRIMARY;
+        }
+        skipCachePuts();
+        return healthy.get((next.getAndIncrement() & Integer.MAX_VALUE) % healthy.size());
+    }
+
+    /**
+     * Runs {@code read} with every connection it asks for taken from the primary. A transaction that already holds
+     * a replica connection keeps it, so reads inside a read-only transaction need a transaction of their own.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        boolean outermost = PINNED_TO_PRIMARY.get() == null;
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (outermost) {
+                PINNED_TO_PRIMARY.remove();
+            }
+        }
+    }
+
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            if (isValid(replica.getValue())) {
+                healthy.add(replica.getKey());
+            } else {
+                evictConnections(replica.getValue());
+            }
+        }
+
+        if (!healthy.equals(healthyReplicas)) {
+            log.info("Healthy replicas: {} of {}", healthy, replicas.keySet());
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    public void pruneWrites() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(writtenAt -> now - writtenAt > readYourWritesNanos);
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    public int getTrackedWriters() {
+        return lastWrites.size();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        checker.shutdownNow();
+        for (DataSource dataSource : replicas.values()) {
+            close(dataSource);
+        }
+        close(primary);
+    }
+
+    private boolean isValid(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid((int) Math.max(1, checkTimeout.toSeconds()));
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void evictConnections(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource && ((HikariDataSource) dataSource).getHikariPoolMXBean() != null) {
+            ((HikariDataSource) dataSource).getHikariPoolMXBean().softEvictConnections();
+        }
+    }
+
+    private synchronized void markDown(String key) {
+        List<String> healthy = new ArrayList<>(healthyReplicas);
+        healthy.remove(key);
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    private void recordWriteOnCommit(Long userId) {
+        if (userId == null || readYourWritesNanos <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWrites.put(userId, System.nanoTime());
+            }
+        });
+    }
+
+    private static void skipCachePuts() {
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (!(resource instanceof EntityManagerHolder)) {
+                continue;
+            }
+
+            Session session = ((EntityManagerHolder) resource).getEntityManager().unwrap(Session.class);
+            CacheMode cacheMode = session.getCacheMode();
+            if (cacheMode.isPutEnabled()) {
+                session.setCacheMode(CacheMode.GET);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (session.isOpen()) {
+                            session.setCacheMode(cacheMode);
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private boolean wroteRecently(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+
+        Long writtenAt = lastWrites.get(userId);
+        return writtenAt != null && System.nanoTime() - writtenAt <= readYourWritesNanos;
+    }
+
+    private static Long getUserId() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+
+        String header = ((ServletRequestAttributes) attributes).getRequest().getHeader(USER_HEADER);
+        try {
+            return header == null ? null : Long.valueOf(header);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void close(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable) {
+            ((Closeable) dataSource).close();
+        }
+    }
+
+}
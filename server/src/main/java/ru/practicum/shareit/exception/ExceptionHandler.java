@@ -23,6 +23,13 @@ public class ExceptionHandler {
         return new ErrorMessage(e.getMessage());
     }
 
+    @org.springframework.web.bind.annotation.ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorMessage handleConflictException(ConflictException e) {
+        log.warn("409 {}", e.getMessage());
+        return new ErrorMessage(e.getMessage());
+    }
+
     @org.springframework.web.bind.annotation.ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorMessage handleRequestFailedException(BadRequestException e) {
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.export;
+
+import lombok.Value;
+
+import java.util.function.Function;
+
+@Value(staticConstructor = "of")
+public class ExportColumn<T> {
+    String name;
+    Function<T, ?> value;
+
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes a repository stream row by row, so an export holds one fetch of rows in memory and not the whole table.
+ * Must run inside the transaction that opened the stream. The streams are DTO projections, which the persistence
+ * context does not manage, so nothing piles up in it until the end of the export.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExportWriter {
+    public static final String EXPORT_FETCH_SIZE = "500";
+    private static final int ROWS_PER_FETCH = Integer.parseInt(EXPORT_FETCH_SIZE);
+
+    private final ObjectMapper objectMapper;
+
+    public <T> long write(Stream<T> rows, ExportFormat format, List<ExportColumn<T>> columns, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(columns.stream().map(ExportColumn::getName).collect(Collectors.joining(",")));
+            writer.write('\n');
+        }
+
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            writer.write(format == ExportFormat.CSV ? toCsv(row, columns) : objectMapper.writeValueAsString(row));
+            writer.write('\n');
+            if (++count % ROWS_PER_FETCH == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static <T> String toCsv(T row, List<ExportColumn<T>> columns) {
+        return columns.stream()
+                .map(column -> escape(column.getValue().apply(row)))
+                .collect(Collectors.joining(","));
+    }
+
+    private static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+}
@@ -1,13 +1,17 @@
 package ru.practicum.shareit.item.comment.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.comment.model.Comment;
-import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItem(Item item);
+    @EntityGraph("Comment.author")
+    @Query("select c from Comment c where c.item.id in ?1")
+    List<Comment> findByItemIdIn(Collection<Long> itemIds);
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,10 +13,13 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.export.ExportFormat;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static ru.practicum.shareit.user.util.UserHeader.USER_HEADER;
@@ -35,6 +39,14 @@ public class ItemController {
         return ResponseEntity.ok(itemService.create(userId, itemDto));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<ItemDto>> createAll(
+            @RequestHeader(USER_HEADER) Long userId,
+            @RequestBody List<ItemDto> itemDtos) {
+
+        return ResponseEntity.ok(itemService.createAll(userId, itemDtos));
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<ItemDto> update(
             @RequestHeader(USER_HEADER) Long userId,
@@ -70,6 +82,26 @@ public class ItemController {
         return ResponseEntity.ok(itemService.search(text, from, size));
     }
 
+    @GetMapping("/available")
+    public ResponseEntity<List<ItemDto>> findAvailable(
+            @RequestParam(required = false, defaultValue = "") String text,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false, defaultValue = "0") Integer from,
+            @RequestParam(required = false, defaultValue = "10") Integer size) {
+
+        return ResponseEntity.ok(itemService.findAvailable(text, start, end, from, size));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false, defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .body(out -> itemService.export(exportFormat, out));
+    }
+
     @PostMapping("/{id}/comment")
     public ResponseEntity<CommentDto> addComment(
             @RequestHeader(USER_HEADER) Long userId,
@@ -21,4 +21,12 @@ public class ItemDto {
     private BookingInfoDto nextBooking;
     private List<CommentDto> comments;
 
+    public ItemDto(Long id, String name, String description, Boolean available, Long requestId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.requestId = requestId;
+    }
+
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ItemSavedEvent {
+    private final Long id;
+    private final Long ownerId;
+    private final String name;
+    private final String description;
+    private final Boolean available;
+}
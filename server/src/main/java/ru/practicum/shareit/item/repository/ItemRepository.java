@@ -2,24 +2,79 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+import static org.hibernate.annotations.QueryHints.CACHE_REGION;
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static ru.practicum.shareit.cache.CacheRegions.ITEM_QUERIES;
+import static ru.practicum.shareit.export.ExportWriter.EXPORT_FETCH_SIZE;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByOwnerId(Long ownerId);
+    String ITEM_DTO = "select new ru.practicum.shareit.item.dto.ItemDto(" +
+            "i.id, i.name, i.description, i.available, i.request.id) from Item i ";
+
+    // the derived query joins USERS and filters on its id, which keeps items_owner_id_idx out of the plan;
+    // exists stops at the first matching index entry instead of counting all of the owner's items
+    @Query(value = "select exists (select 1 from items i where i.owner_id = ?1)", nativeQuery = true)
+    boolean existsByOwnerId(Long ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long id);
+
+    @Query(ITEM_DTO + "where i.owner.id = ?1 order by i.id")
+    @QueryHints({@QueryHint(name = CACHEABLE, value = "true"), @QueryHint(name = CACHE_REGION, value = ITEM_QUERIES)})
+    List<ItemDto> findOwnerItems(Long ownerId, Pageable pageable);
 
-    List<Item> findByOwnerId(Long ownerId, Pageable pageable);
+    @Query(ITEM_DTO + "order by i.id")
+    @QueryHints(@QueryHint(name = FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    Stream<ItemDto> streamAll();
 
     @Query(" select i from Item i " +
             "where upper(i.name) like upper(concat('%', ?1, '%')) and available = true " +
-            "or upper(i.description) like upper(concat('%', ?1, '%')) and available = true")
+            "or upper(i.description) like upper(concat('%', ?1, '%')) and available = true " +
+            "order by i.id")
     List<Item> search(String text, Pageable pageable);
 
-    List<Item> findByRequest(ItemRequest itemRequest);
+    @Query(" select i.id from Item i " +
+            "where upper(i.name) like upper(concat('%', ?1, '%')) and available = true " +
+            "or upper(i.description) like upper(concat('%', ?1, '%')) and available = true " +
+            "order by i.id")
+    List<Long> searchIds(String text, Pageable pageable);
+
+    @Query(ITEM_DTO +
+            "where i.available = true " +
+            "and not exists (select b.id from Booking b " +
+            "where b.item = i and b.status = ?1 and b.start < ?3 and b.end > ?2) " +
+            "order by i.id")
+    List<ItemDto> findAvailableBetween(BookingStatus status, LocalDateTime start, LocalDateTime end,
+                                       Pageable pageable);
+
+    @Query(ITEM_DTO +
+            "where i.id in ?1 and i.available = true " +
+            "and not exists (select b.id from Booking b " +
+            "where b.item = i and b.status = ?2 and b.start < ?4 and b.end > ?3)")
+    List<ItemDto> findAvailableAmong(Collection<Long> ids, BookingStatus status, LocalDateTime start,
+                                     LocalDateTime end);
+
+    @Query(ITEM_DTO + "where i.request.id in ?1")
+    @QueryHints({@QueryHint(name = CACHEABLE, value = "true"), @QueryHint(name = CACHE_REGION, value = ITEM_QUERIES)})
+    List<ItemDto> findByRequestIdIn(Collection<Long> requestIds);
 
 }
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked full-text search backed by the database index.
+ * On PostgreSQL it uses the {@code items.search_vector} tsvector column and its GIN index,
+ * on H2 (ci and test profiles) the built-in {@code FT_SEARCH_DATA} index.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.engine", havingValue = "fulltext")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private static final String POSTGRES_QUERY = "from items i " +
+            "where i.available = true and i.search_vector @@ to_tsquery('simple', :query) " +
+            "order by ts_rank(i.search_vector, to_tsquery('simple', :query)) desc, i.id";
+    private static final String H2_QUERY = "from FT_SEARCH_DATA(:query, 0, 0) ft " +
+            "join items i on i.id = ft.KEYS[1] " +
+            "where i.available = true " +
+            "order by ft.SCORE desc, i.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private final DatabaseDriver databaseDriver;
+
+    public FullTextItemSearchEngine(DataSource dataSource) throws MetaDataAccessException {
+        String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        this.databaseDriver = DatabaseDriver.fromProductName(productName);
+        log.info("Full-text item search uses {} index.", databaseDriver);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> search(String text, Pageable pageable) {
+        List<String> words = toWords(text);
+        if (words.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return entityManager.createNativeQuery("select i.* " + getQuery(), Item.class)
+                .setParameter("query", toQuery(words))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public List<Long> searchIds(String text, Pageable pageable) {
+        List<String> words = toWords(text);
+        if (words.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<?> ids = entityManager.createNativeQuery("select i.id " + getQuery())
+                .setParameter("query", toQuery(words))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return ids.stream()
+                .map(id -> ((Number) id).longValue())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> toWords(String text) {
+        return Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private String getQuery() {
+        switch (databaseDriver) {
+            case POSTGRESQL:
+                return POSTGRES_QUERY;
+            case H2:
+                return H2_QUERY;
+            default:
+                throw new IllegalStateException("Full-text item search is not supported by " + databaseDriver);
+        }
+    }
+
+    private String toQuery(List<String> words) {
+        if (databaseDriver == DatabaseDriver.POSTGRESQL) {
+            return words.stream()
+                    .map(word -> word + ":*")
+                    .collect(Collectors.joining(" & "));
+        }
+        return String.join(" ", words);
+    }
+
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Serves item search from an {@link InvertedItemIndex} kept in memory. Only available items are indexed;
+ * the database is queried for the entities of the requested page only. The indexed items of each owner are tracked,
+ * so the items the database drops along with a deleted user leave the index too. The index is loaded from
+ * the primary.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final PrimaryReads primaryReads;
+    private final InvertedItemIndex index = new InvertedItemIndex();
+    private final Map<Long, Set<Long>> itemsByOwner = new ConcurrentHashMap<>();
+    private final Queue<ItemSavedEvent> savedWhileLoading = new ConcurrentLinkedQueue<>();
+    private final Queue<UserDeletedEvent> deletedWhileLoading = new ConcurrentLinkedQueue<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Pageable page = PageRequest.of(0, LOAD_BATCH_SIZE, Sort.by("id"));
+        Page<Item> items;
+        do {
+            Pageable batch = page;
+            items = primaryReads.read(() -> itemRepository.findAll(batch));
+            items.forEach(item -> index(item.getId(), item.getOwner().getId(), item.getName(), item.getDescription(),
+                    item.getAvailable()));
+            page = items.nextPageable();
+        } while (items.hasNext());
+
+        loaded = true;
+        ItemSavedEvent event;
+        while ((event = savedWhileLoading.poll()) != null) {
+            onItemSaved(event);
+        }
+        UserDeletedEvent deleted;
+        while ((deleted = deletedWhileLoading.poll()) != null) {
+            onUserDeleted(deleted);
+        }
+        log.info("Item search index loaded with {} available items.", index.size());
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        index(event.getId(), event.getOwnerId(), event.getName(), event.getDescription(), event.getAvailable());
+        if (!loaded) {
+            savedWhileLoading.add(event);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        Set<Long> ownItems = itemsByOwner.remove(event.getId());
+        if (ownItems != null) {
+            ownItems.forEach(index::remove);
+        }
+        if (!loaded) {
+            deletedWhileLoading.add(event);
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        List<Long> pageIds = searchIds(text, pageable);
+        if (pageIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return itemRepository.findAllById(pageIds).stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Long> searchIds(String text, Pageable pageable) {
+        long[] ids = index.search(text);
+        int from = (int) Math.min(pageable.getOffset(), ids.length);
+        int to = Math.min(from + pageable.getPageSize(), ids.length);
+
+        return Arrays.stream(ids, from, to)
+                .boxed()
+                .collect(Collectors.toList());
+    }
+
+    private void index(Long id, Long ownerId, String name, String description, Boolean available) {
+        if (Boolean.TRUE.equals(available)) {
+            index.put(id, name, description);
+            itemsByOwner.computeIfAbsent(ownerId, owner -> ConcurrentHashMap.newKeySet()).add(id);
+        } else {
+            index.remove(id);
+            itemsByOwner.computeIfPresent(ownerId, (owner, ownItems) -> {
+                ownItems.remove(id);
+                return ownItems.isEmpty() ? null : ownItems;
+            });
+        }
+    }
+
+}
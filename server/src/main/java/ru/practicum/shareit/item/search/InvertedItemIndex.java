@@ -0,0 +1,175 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Token to item id index over item name and description. Posting lists are sorted {@code long[]} arrays,
+ * query words match tokens by prefix and are ANDed.
+ */
+public class InvertedItemIndex {
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final long[] EMPTY = new long[0];
+
+    private final NavigableMap<String, long[]> postings = new TreeMap<>();
+    private final Map<Long, String[]> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(long id, String name, String description) {
+        String[] tokens = tokenize(Objects.toString(name, "") + " " + Objects.toString(description, ""));
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            for (String token : tokens) {
+                postings.merge(token, new long[]{id}, (ids, single) -> insert(ids, id));
+            }
+            documents.put(id, tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long[] search(String text) {
+        String[] words = tokenize(text);
+        if (words.length == 0) {
+            return EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] result = null;
+            for (String word : words) {
+                long[] matches = prefixMatches(word);
+                result = result == null ? matches : intersect(result, matches);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeDocument(long id) {
+        String[] tokens = documents.remove(id);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            long[] ids = delete(postings.get(token), id);
+            if (ids.length == 0) {
+                postings.remove(token);
+            } else {
+                postings.put(token, ids);
+            }
+        }
+    }
+
+    private long[] prefixMatches(String prefix) {
+        long[] result = EMPTY;
+        for (long[] ids : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+            result = union(result, ids);
+        }
+        return result;
+    }
+
+    private static String[] tokenize(String text) {
+        return SEPARATOR.splitAsStream(text.toLowerCase())
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+        position = -position - 1;
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, position);
+        result[position] = id;
+        System.arraycopy(ids, position, result, position + 1, ids.length - position);
+        return result;
+    }
+
+    private static long[] delete(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return ids;
+        }
+        long[] result = new long[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, position);
+        System.arraycopy(ids, position + 1, result, position, ids.length - position - 1);
+        return result;
+    }
+
+    private static long[] intersect(long[] first, long[] second) {
+        long[] result = new long[Math.min(first.length, second.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                result[size++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static long[] union(long[] first, long[] second) {
+        if (first.length == 0) {
+            return second;
+        }
+        long[] result = new long[first.length + second.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < first.length || j < second.length) {
+            if (j == second.length || i < first.length && first[i] < second[j]) {
+                result[size++] = first[i++];
+            } else if (i == first.length || first[i] > second[j]) {
+                result[size++] = second[j++];
+            } else {
+                result[size++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+}
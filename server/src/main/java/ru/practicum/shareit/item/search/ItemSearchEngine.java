@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Strategy behind {@code GET /items/search}. The implementation is chosen with
+ * the {@code shareit.item.search.engine} property.
+ */
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, Pageable pageable);
+
+    /**
+     * Ids of the items {@link #search} finds, in the same order.
+     */
+    List<Long> searchIds(String text, Pageable pageable);
+
+}
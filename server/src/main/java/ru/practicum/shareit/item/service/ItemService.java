@@ -1,14 +1,20 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.export.ExportFormat;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
 
     ItemDto create(Long id, ItemDto itemDto);
 
+    List<ItemDto> createAll(Long id, List<ItemDto> itemDtos);
+
     ItemDto update(Long idUser, Long id, ItemDto itemDto);
 
     ItemDto findById(Long idUser, Long id);
@@ -17,6 +23,10 @@ public interface ItemService {
 
     List<ItemDto> search(String text, Integer from, Integer size);
 
+    List<ItemDto> findAvailable(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size);
+
     CommentDto addComment(Long idUser, Long idItem, CommentDto commentDto);
 
+    void export(ExportFormat format, OutputStream out) throws IOException;
+
 }
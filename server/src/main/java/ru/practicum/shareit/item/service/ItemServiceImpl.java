@@ -2,62 +2,114 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.booking.timeline.ItemTimeline;
 import ru.practicum.shareit.exception.ForbiddenAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.TimeDataException;
+import ru.practicum.shareit.export.ExportColumn;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.export.ExportWriter;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.OffsetPageRequest;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.Optional.ofNullable;
+import static ru.practicum.shareit.util.BatchSize.checkBatchSize;
 
 @Slf4j
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int AVAILABILITY_CANDIDATES = 100;
+    private static final List<ExportColumn<ItemDto>> EXPORT_COLUMNS = List.of(
+            ExportColumn.of("id", ItemDto::getId),
+            ExportColumn.of("name", ItemDto::getName),
+            ExportColumn.of("description", ItemDto::getDescription),
+            ExportColumn.of("available", ItemDto::getAvailable),
+            ExportColumn.of("requestId", ItemDto::getRequestId));
+
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
-    private final BookingMapper bookingMapper;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingTimeline bookingTimeline;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExportWriter exportWriter;
 
     @Transactional
     public ItemDto create(Long userId, ItemDto itemDto) {
         Item newItem = itemMapper.toItem(itemDto, getUserById(userId));
         newItem.setRequest(getItemRequest(itemDto.getRequestId()));
         Item item = itemRepository.save(newItem);
+        publishSaved(item);
         log.info("Created new item with id={}.", item.getId());
 
         return itemMapper.toItemDto(item);
     }
 
+    @Transactional
+    public List<ItemDto> createAll(Long userId, List<ItemDto> itemDtos) {
+        checkBatchSize(itemDtos);
+        User owner = getUserById(userId);
+        Map<Long, ItemRequest> requests = getItemRequests(itemDtos);
+
+        List<Item> newItems = new ArrayList<>();
+        for (ItemDto itemDto : itemDtos) {
+            Item newItem = itemMapper.toItem(itemDto, owner);
+            newItem.setRequest(requests.get(itemDto.getRequestId()));
+            newItems.add(newItem);
+        }
+
+        List<Item> items = itemRepository.saveAll(newItems);
+        items.forEach(this::publishSaved);
+        log.info("Created {} new items of user with id={}.", items.size(), userId);
+
+        return items.stream()
+                .map(itemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public ItemDto update(Long userId, Long itemId, ItemDto itemDto) {
         Item updateItem = itemRepository.findById(itemId)
@@ -69,9 +121,11 @@ public class ItemServiceImpl implements ItemService {
         ofNullable(itemDto.getDescription()).ifPresent(updateItem::setDescription);
         ofNullable(itemDto.getAvailable()).ifPresent(updateItem::setAvailable);
 
+        Item item = itemRepository.save(updateItem);
+        publishSaved(item);
         log.info("Updated ite, with id={}.", itemId);
 
-        return itemMapper.toItemDto(itemRepository.save(updateItem));
+        return itemMapper.toItemDto(item);
     }
 
     @Override
@@ -81,21 +135,22 @@ public class ItemServiceImpl implements ItemService {
 
         log.info("Found item with id={}.", itemId);
 
-        return setBookingAndCommentInfo(item, userId);
+        List<Long> ownItemIds = item.getOwner().getId().equals(userId) ? List.of(itemId) : List.of();
+        return setBookingAndCommentInfo(List.of(itemMapper.toItemDto(item)), ownItemIds).get(0);
     }
 
     @Override
     public List<ItemDto> findAllItemsOfUser(Long userId, Integer from, Integer size) {
         int start = from / size;
         PageRequest page = PageRequest.of(start, size);
-        List<Item> itemList = itemRepository.findByOwnerId(userId, page);
+        List<ItemDto> itemList = itemRepository.findOwnerItems(userId, page);
 
         log.info("Found all items ({}) of user with id={}.", itemList.size(), userId);
 
-        return itemList.stream()
-                .map(item -> setBookingAndCommentInfo(item, userId))
-                .sorted(Comparator.comparing(ItemDto::getId))
+        List<Long> ownItemIds = itemList.stream()
+                .map(ItemDto::getId)
                 .collect(Collectors.toList());
+        return setBookingAndCommentInfo(itemList, ownItemIds);
     }
 
     @Override
@@ -107,7 +162,7 @@ public class ItemServiceImpl implements ItemService {
             log.info("Search query is empty.");
             return new ArrayList<>();
         } else {
-            List<Item> itemList = itemRepository.search(searchQuery, page);
+            List<Item> itemList = itemSearchEngine.search(searchQuery, page);
             log.info("Search query: found " + itemList.size() + " items.");
 
             return itemList.stream()
@@ -116,6 +171,60 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    @Override
+    public List<ItemDto> findAvailable(String text, LocalDateTime start, LocalDateTime end, Integer from,
+                                       Integer size) {
+        if (!start.isBefore(end)) {
+            throw new TimeDataException("Invalid availability window start time and end time.");
+        }
+        List<ItemDto> itemList = text.isBlank()
+                ? itemRepository.findAvailableBetween(BookingStatus.APPROVED, start, end,
+                        OffsetPageRequest.of(from, size))
+                : findAvailableMatching(text, start, end, from, size);
+        log.info("Found {} items available from {} to {}.", itemList.size(), start, end);
+
+        return itemList;
+    }
+
+    /**
+     * Walks the items the search engine finds for {@code text} in its order, a batch of candidates at a time,
+     * and pages over the ones without an approved booking in the window.
+     */
+    private List<ItemDto> findAvailableMatching(String text, LocalDateTime start, LocalDateTime end, int from,
+                                                int size) {
+        List<ItemDto> itemList = new ArrayList<>();
+        int skip = from;
+        Pageable candidates = OffsetPageRequest.of(0, AVAILABILITY_CANDIDATES);
+        List<Long> candidateIds;
+        do {
+            candidateIds = itemSearchEngine.searchIds(text, candidates);
+            if (candidateIds.isEmpty()) {
+                break;
+            }
+
+            Map<Long, ItemDto> free = itemRepository
+                    .findAvailableAmong(candidateIds, BookingStatus.APPROVED, start, end).stream()
+                    .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+            for (Long id : candidateIds) {
+                ItemDto item = free.get(id);
+                if (item == null) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    itemList.add(item);
+                    if (itemList.size() == size) {
+                        return itemList;
+                    }
+                }
+            }
+            candidates = candidates.next();
+        } while (candidateIds.size() == AVAILABILITY_CANDIDATES);
+
+        return itemList;
+    }
+
     @Transactional
     public CommentDto addComment(Long itemId, Long userId, CommentDto commentDto) {
         Comment comment = commentMapper.toComment(commentDto);
@@ -137,36 +246,50 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    @Override
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<ItemDto> items = itemRepository.streamAll()) {
+            long count = exportWriter.write(items, format, EXPORT_COLUMNS, out);
+            log.info("Exported {} items as {}.", count, format);
+        }
+    }
+
     private void checkIsOwner(Long ownerId, Item item) {
         if (!Objects.equals(item.getOwner().getId(), ownerId)) {
             throw new ForbiddenAccessException("User with id=" + ownerId + " is not the owner.");
         }
     }
 
-    private ItemDto setBookingAndCommentInfo(Item item, Long userId) {
-        LocalDateTime dateTime = LocalDateTime.now();
-        ItemDto itemDto = itemMapper.toItemDto(item);
-
-        List<CommentDto> commentDtoList = commentRepository.findByItem(item).stream()
-                .map(commentMapper::toCommentDto)
-                .collect(Collectors.toList());
-
-        itemDto.setComments(commentDtoList);
-
-        if (item.getOwner().getId().equals(userId)) {
+    private void publishSaved(Item item) {
+        eventPublisher.publishEvent(new ItemSavedEvent(
+                item.getId(), item.getOwner().getId(), item.getName(), item.getDescription(), item.getAvailable()));
+    }
 
-            List<Booking> lastBooking = bookingRepository
-                    .findDByItemAndStatusAndStartBeforeOrderByEndDesc(item, BookingStatus.APPROVED, dateTime);
+    private List<ItemDto> setBookingAndCommentInfo(List<ItemDto> items, List<Long> ownItemIds) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-            itemDto.setLastBooking(lastBooking.isEmpty() ? null : bookingMapper.toBookingInfoDto(lastBooking.get(0)));
+        List<Long> itemIds = items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
 
-            List<Booking> nextBooking = bookingRepository
-                    .findDByItemAndStatusAndStartAfterOrderByStartAsc(item, BookingStatus.APPROVED, dateTime);
+        Map<Long, List<CommentDto>> commentsByItemId = commentRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentMapper::toCommentDto, Collectors.toList())));
 
-            itemDto.setNextBooking(nextBooking.isEmpty() ? null : bookingMapper.toBookingInfoDto(nextBooking.get(0)));
-        }
+        Map<Long, ItemTimeline> timelines = bookingTimeline.findByItemIds(ownItemIds);
+        LocalDateTime dateTime = LocalDateTime.now();
 
-        return itemDto;
+        items.forEach(itemDto -> {
+            itemDto.setComments(commentsByItemId.getOrDefault(itemDto.getId(), new ArrayList<>()));
+            ItemTimeline timeline = timelines.get(itemDto.getId());
+            if (timeline != null) {
+                itemDto.setLastBooking(timeline.last(dateTime));
+                itemDto.setNextBooking(timeline.next(dateTime));
+            }
+        });
+        return items;
     }
 
     private ItemRequest getItemRequest(Long itemRequestId) {
@@ -177,12 +300,31 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NotFoundException("Item request with id=" + itemRequestId + " not found."));
     }
 
+    private Map<Long, ItemRequest> getItemRequests(List<ItemDto> itemDtos) {
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        requestIds.stream()
+                .filter(requestId -> !requests.containsKey(requestId))
+                .findFirst()
+                .ifPresent(requestId -> {
+                    throw new NotFoundException("Item request with id=" + requestId + " not found.");
+                });
+        return requests;
+    }
+
     private User getUserById(Long userId) {
         if (userId == null) {
             return null;
         }
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id=" + userId + " not found."));
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundException("User with id=" + userId + " not found.");
+        }
+        return userRepository.getReferenceById(userId);
     }
 
 }
@@ -18,4 +18,11 @@ public class ItemRequestDto {
     private Long requestorId;
     private List<ItemDto> items;
 
+    public ItemRequestDto(Long id, String description, LocalDateTime created, Long requestorId) {
+        this.id = id;
+        this.description = description;
+        this.created = created;
+        this.requestorId = requestorId;
+    }
+
 }
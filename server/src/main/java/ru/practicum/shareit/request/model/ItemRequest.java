@@ -1,11 +1,19 @@
 package ru.practicum.shareit.request.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.IdSequence;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
+import static ru.practicum.shareit.cache.CacheRegions.REQUESTS;
+
 @Getter
 @Setter
 @AllArgsConstructor
@@ -13,15 +21,18 @@ import java.time.LocalDateTime;
 @Entity
 @Builder
 @Table(name = "REQUEST")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = REQUESTS)
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "request_seq")
+    @GenericGenerator(name = "request_seq", strategy = IdSequence.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "request_seq"))
     private Long id;
     @Column(name = "description")
     private String description;
     @Column(name = "created")
     private LocalDateTime created;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requestor_id")
     private User requestor;
 
@@ -2,16 +2,22 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    String ITEM_REQUEST_DTO = "select new ru.practicum.shareit.request.dto.ItemRequestDto(" +
+            "r.id, r.description, r.created, r.requestor.id) from ItemRequest r ";
 
-    List<ItemRequest> findByRequestorIdOrderByCreatedAsc(Long requestorId);
+    @Query(ITEM_REQUEST_DTO + "where r.requestor.id = ?1 order by r.created")
+    List<ItemRequestDto> findByRequestorIdOrderByCreatedAsc(Long requestorId);
 
-    List<ItemRequest> findByRequestorIdNotOrderByCreatedAsc(Long requestorId, Pageable page);
+    @Query(ITEM_REQUEST_DTO + "where r.requestor.id <> ?1 order by r.created")
+    List<ItemRequestDto> findByRequestorIdNotOrderByCreatedAsc(Long requestorId, Pageable page);
 
 }
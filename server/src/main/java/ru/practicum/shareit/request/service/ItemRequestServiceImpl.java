@@ -8,17 +8,19 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnsupportedStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -29,8 +31,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRequestMapper itemRequestMapper;
-    private final ItemMapper itemMapper;
 
     @Transactional
     public ItemRequestDto create(Long userId, ItemRequestDto itemRequestDto) {
@@ -47,13 +49,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<ItemRequestDto> findAllRequestsOfUser(Long userId) {
         checkUserInDb(userId);
 
-        List<ItemRequest> itemRequestList = itemRequestRepository.findByRequestorIdOrderByCreatedAsc(userId);
+        List<ItemRequestDto> itemRequestList = itemRequestRepository.findByRequestorIdOrderByCreatedAsc(userId);
         log.info("Found all item requests ({}) of user with id={}.", itemRequestList.size(), userId);
 
-        return itemRequestList.stream()
-                .map(itemRequestMapper::toItemRequestDto)
-                .peek(itemRequestDto -> itemRequestDto.setItems(getItemDtoListByRequestId(itemRequestDto.getId())))
-                .collect(Collectors.toList());
+        return setItems(itemRequestList);
     }
 
 
@@ -62,13 +61,11 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         checkUserInDb(userId);
 
         PageRequest page = PageRequest.of(from, size);
-        List<ItemRequest> itemRequestsList = itemRequestRepository.findByRequestorIdNotOrderByCreatedAsc(userId, page);
+        List<ItemRequestDto> itemRequestsList = itemRequestRepository.findByRequestorIdNotOrderByCreatedAsc(
+                userId, page);
         log.info("Found all item requests ({}) except made by user with id={}.", itemRequestsList.size(), userId);
 
-        return itemRequestsList.stream()
-                .map(itemRequestMapper::toItemRequestDto)
-                .peek(itemRequestDto -> itemRequestDto.setItems(getItemDtoListByRequestId(itemRequestDto.getId())))
-                .collect(Collectors.toList());
+        return setItems(itemRequestsList);
     }
 
     public ItemRequestDto findById(Long userId, Long requestId) {
@@ -77,37 +74,45 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("ItemRequest with id=" + requestId + " not found."));
 
-        ItemRequestDto itemRequestDto = itemRequestMapper.toItemRequestDto(itemRequest);
-        itemRequestDto.setItems(getItemDtoListByRequestId(requestId));
-
         log.info("Found item request with id={}.", requestId);
 
-        return itemRequestDto;
+        return setItems(List.of(itemRequestMapper.toItemRequestDto(itemRequest))).get(0);
     }
 
     private void checkUserInDb(Long userId) {
         if (userId == null) {
             throw new UnsupportedStatus("UserId is null");
         }
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id=" + userId + " not found."));
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundException("User with id=" + userId + " not found.");
+        }
     }
 
-    private List<ItemDto> getItemDtoListByRequestId(Long requestId) {
-        ItemRequest itemRequest = itemRequestRepository.findById(requestId)
-                .orElseThrow(() -> new NotFoundException("Item request with id=" + requestId + " not found."));
+    private List<ItemRequestDto> setItems(List<ItemRequestDto> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        return itemRepository.findByRequest(itemRequest).stream()
-                .map(itemMapper::toItemDto)
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequestDto::getId)
                 .collect(Collectors.toList());
+
+        Map<Long, List<ItemDto>> itemsByRequestId = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+
+        itemRequests.forEach(itemRequest ->
+                itemRequest.setItems(itemsByRequestId.getOrDefault(itemRequest.getId(), new ArrayList<>())));
+        return itemRequests;
     }
 
     private User getUserById(Long userId) {
         if (userId == null) {
             return null;
         }
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id=" + userId + " not found."));
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundException("User with id=" + userId + " not found.");
+        }
+        return userRepository.getReferenceById(userId);
     }
 
 }
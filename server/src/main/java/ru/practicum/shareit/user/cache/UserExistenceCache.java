@@ -0,0 +1,120 @@
+package ru.practicum.shareit.user.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserSavedEvent;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache with TTL of whether a user id exists, including unknown ids.
+ * Entries are evicted when a user is saved or deleted, both right away and once the transaction commits,
+ * and a lookup that raced an eviction is not cached. Lookups read the primary, since a replica that hasn't seen
+ * a new user yet would otherwise cache it as unknown.
+ */
+@Component
+public class UserExistenceCache {
+    private static final String CACHE_NAME = "userExistence";
+
+    private final UserRepository userRepository;
+    private final PrimaryReads primaryReads;
+    private final long ttlNanos;
+    private final Map<Long, Entry> entries;
+    private final AtomicLong version = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public UserExistenceCache(UserRepository userRepository, PrimaryReads primaryReads, MeterRegistry meterRegistry,
+                              @Value("${shareit.user.cache.max-size}") int maxSize,
+                              @Value("${shareit.user.cache.ttl}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.primaryReads = primaryReads;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.hits = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "hit");
+        this.misses = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "miss");
+        this.evictions = meterRegistry.counter("cache.evictions", "cache", CACHE_NAME);
+        meterRegistry.gauge("cache.size", Tags.of("cache", CACHE_NAME),
+                entries, this::size);
+    }
+
+    public boolean exists(Long userId) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAt - now > 0) {
+                hits.increment();
+                return entry.exists;
+            }
+        }
+
+        misses.increment();
+        long loadVersion = version.get();
+        boolean exists = primaryReads.read(() -> userRepository.existsById(userId));
+        synchronized (entries) {
+            if (version.get() == loadVersion) {
+                entries.put(userId, new Entry(exists, now + ttlNanos));
+            }
+        }
+        return exists;
+    }
+
+    @EventListener
+    public void onUserSaving(UserSavedEvent event) {
+        evict(event.getId());
+    }
+
+    @TransactionalEventListener
+    public void onUserSaved(UserSavedEvent event) {
+        evict(event.getId());
+    }
+
+    @EventListener
+    public void onUserDeleting(UserDeletedEvent event) {
+        evict(event.getId());
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        evict(event.getId());
+    }
+
+    private void evict(Long userId) {
+        synchronized (entries) {
+            version.incrementAndGet();
+            if (entries.remove(userId) != null) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private double size(Map<Long, Entry> entries) {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final boolean exists;
+        private final long expiresAt;
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -10,12 +11,19 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.export.ExportFormat;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.util.UserCursor;
 
 import java.util.List;
 
+import static ru.practicum.shareit.util.PagingHeaders.NEXT_CURSOR_HEADER;
+import static ru.practicum.shareit.util.PagingHeaders.TOTAL_COUNT_ESTIMATE_HEADER;
+
 @RestController
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
@@ -39,8 +47,31 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<UserDto>> findAllUsers() {
-        return ResponseEntity.ok(userService.findAllUsers());
+    public ResponseEntity<List<UserDto>> findAllUsers(
+            @RequestParam(required = false, defaultValue = "0") Integer from,
+            @RequestParam(required = false, defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(TOTAL_COUNT_ESTIMATE_HEADER, String.valueOf(userService.estimateUserCount()));
+        if (cursor == null) {
+            return ResponseEntity.ok().headers(headers).body(userService.findAllUsers(from, size));
+        }
+
+        List<UserDto> users = userService.findUsersAfter(cursor, size);
+        if (users.size() == size) {
+            headers.set(NEXT_CURSOR_HEADER, new UserCursor(users.get(users.size() - 1).getId()).encode());
+        }
+        return ResponseEntity.ok().headers(headers).body(users);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false, defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .body(out -> userService.export(exportFormat, out));
     }
 
     @DeleteMapping("{id}")
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class UserDeletedEvent {
+    private final Long id;
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.user.repository;
+
+public interface UserCountRepository {
+
+    long estimateCount();
+
+}
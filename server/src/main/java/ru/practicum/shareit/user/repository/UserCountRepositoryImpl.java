@@ -0,0 +1,55 @@
+package ru.practicum.shareit.user.repository;
+
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+
+/**
+ * Takes the row count from the table statistics the database keeps for its planner instead of running COUNT(*),
+ * which reads the whole table. Below {@link #EXACT_COUNT_LIMIT} rows, or when there are no statistics yet,
+ * the table is small enough to count exactly.
+ */
+public class UserCountRepositoryImpl implements UserCountRepository {
+    private static final long EXACT_COUNT_LIMIT = 10000;
+    private static final String POSTGRES_ESTIMATE = "select cast(reltuples as bigint) from pg_class " +
+            "where oid = cast('users' as regclass)";
+    private static final String H2_ESTIMATE = "select row_count_estimate from information_schema.tables " +
+            "where table_schema = 'PUBLIC' and table_name = 'USERS'";
+
+    @PersistenceContext
+    private EntityManager em;
+    private final String estimateQuery;
+
+    public UserCountRepositoryImpl(DataSource dataSource) throws MetaDataAccessException {
+        String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        DatabaseDriver databaseDriver = DatabaseDriver.fromProductName(productName);
+        if (databaseDriver == DatabaseDriver.POSTGRESQL) {
+            estimateQuery = POSTGRES_ESTIMATE;
+        } else if (databaseDriver == DatabaseDriver.H2) {
+            estimateQuery = H2_ESTIMATE;
+        } else {
+            estimateQuery = null;
+        }
+    }
+
+    @Override
+    public long estimateCount() {
+        long estimate = -1;
+        if (estimateQuery != null) {
+            List<?> rows = em.createNativeQuery(estimateQuery).getResultList();
+            estimate = rows.isEmpty() ? -1 : ((Number) rows.get(0)).longValue();
+        }
+
+        if (estimate < EXACT_COUNT_LIMIT) {
+            return em.createQuery("select count(u) from User u", Long.class).getSingleResult();
+        }
+        return estimate;
+    }
+
+}
@@ -1,10 +1,32 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static ru.practicum.shareit.export.ExportWriter.EXPORT_FETCH_SIZE;
+
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserCountRepository {
+    String USER_DTO = "select new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) from User u ";
+
+    @Query(USER_DTO + "order by u.id")
+    List<UserDto> findPage(Pageable pageable);
+
+    @Query(USER_DTO + "where u.id > ?1 order by u.id")
+    List<UserDto> findPageAfter(Long id, Pageable pageable);
+
+    @Query(USER_DTO + "order by u.id")
+    @QueryHints(@QueryHint(name = FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    Stream<UserDto> streamAll();
 
 }
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.export.ExportFormat;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface UserService {
@@ -12,7 +15,13 @@ public interface UserService {
 
     UserDto findById(Long userId);
 
-    List<UserDto> findAllUsers();
+    List<UserDto> findAllUsers(Integer from, Integer size);
+
+    List<UserDto> findUsersAfter(String cursor, Integer size);
+
+    long estimateUserCount();
+
+    void export(ExportFormat format, OutputStream out) throws IOException;
 
     void delete(Long userId);
 }
@@ -2,16 +2,27 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.export.ExportColumn;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.export.ExportWriter;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserSavedEvent;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.util.UserCursor;
+import ru.practicum.shareit.util.OffsetPageRequest;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.Optional.ofNullable;
 
@@ -20,14 +31,23 @@ import static java.util.Optional.ofNullable;
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final List<ExportColumn<UserDto>> EXPORT_COLUMNS = List.of(
+            ExportColumn.of("id", UserDto::getId),
+            ExportColumn.of("name", UserDto::getName),
+            ExportColumn.of("email", UserDto::getEmail));
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExportWriter exportWriter;
 
     @Transactional
     @Override
     public UserDto create(UserDto userDto) {
         User newUser = userMapper.toUser(userDto);
-        User user = userRepository.save(newUser);
+        // flushed right away, so an invalid or duplicate email still fails here and not at commit
+        User user = userRepository.saveAndFlush(newUser);
+        eventPublisher.publishEvent(new UserSavedEvent(user.getId()));
         log.info("Created new user with id={}.", user.getId());
 
         return userMapper.toUserDto(user);
@@ -41,6 +61,7 @@ public class UserServiceImpl implements UserService {
 
         ofNullable(userDto.getName()).ifPresent(updateUser::setName);
         ofNullable(userDto.getEmail()).ifPresent(updateUser::setEmail);
+        eventPublisher.publishEvent(new UserSavedEvent(userId));
 
         log.info("Updated user with id={}.", userId);
 
@@ -57,18 +78,42 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserDto> findAllUsers() {
-        List<User> userList = userRepository.findAll();
-        log.info("Found all users ({}).", userList.size());
-        return userList.stream()
-                .map(userMapper::toUserDto)
-                .collect(Collectors.toList());
+    public List<UserDto> findAllUsers(Integer from, Integer size) {
+        List<UserDto> userList = userRepository.findPage(OffsetPageRequest.of(from, size));
+        log.info("Found {} users, from={}, size={}.", userList.size(), from, size);
+
+        return userList;
+    }
+
+    @Override
+    public List<UserDto> findUsersAfter(String cursor, Integer size) {
+        UserCursor after = UserCursor.decode(cursor);
+        List<UserDto> userList = after == null
+                ? userRepository.findPage(PageRequest.of(0, size))
+                : userRepository.findPageAfter(after.getId(), PageRequest.of(0, size));
+        log.info("Found {} users after cursor.", userList.size());
+
+        return userList;
+    }
+
+    @Override
+    public long estimateUserCount() {
+        return userRepository.estimateCount();
+    }
+
+    @Override
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<UserDto> users = userRepository.streamAll()) {
+            long count = exportWriter.write(users, format, EXPORT_COLUMNS, out);
+            log.info("Exported {} users as {}.", count, format);
+        }
     }
 
     @Transactional
     @Override
     public void delete(Long userId) {
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(new UserDeletedEvent(userId));
         log.info("Deleted user with id={}.", userId);
     }
 
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.user.util;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Getter
+@RequiredArgsConstructor
+public class UserCursor {
+    private final Long id;
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for an empty cursor, which means the first page.
+     */
+    public static UserCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new UserCursor(Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.UTF_8)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.util;
+
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.util.List;
+
+public class BatchSize {
+    // same bounds as @NotEmpty @Size(max = 100) on the gateway batch endpoints
+    public static final int MAX_BATCH_SIZE = 100;
+
+    public static void checkBatchSize(List<?> batch) {
+        if (batch == null || batch.isEmpty() || batch.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("A batch must contain from 1 to " + MAX_BATCH_SIZE + " elements.");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.util;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Pooled sequence generator whose increment is taken from the {@value #ALLOCATION_SIZE_SETTING} Hibernate
+ * setting instead of a compile-time {@code allocationSize}. The same value is passed to Flyway, which
+ * aligns the "increment by" of the sequences in R__id_sequence_increment.sql.
+ */
+public class IdSequence extends SequenceStyleGenerator {
+    public static final String STRATEGY = "ru.practicum.shareit.util.IdSequence";
+    public static final String ALLOCATION_SIZE_SETTING = "shareit.id.allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = ConfigurationHelper.getInt(ALLOCATION_SIZE_SETTING,
+                serviceRegistry.getService(ConfigurationService.class).getSettings(), DEFAULT_ALLOCATION_SIZE);
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        super.configure(type, params, serviceRegistry);
+    }
+}
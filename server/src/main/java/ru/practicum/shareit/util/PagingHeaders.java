@@ -0,0 +1,8 @@
+package ru.practicum.shareit.util;
+
+public class PagingHeaders {
+    // opaque cursor of the page after this one, only set when the page is full
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    // planner row estimate, so listing users never runs a count over the whole table
+    public static final String TOTAL_COUNT_ESTIMATE_HEADER = "X-Total-Count-Estimate";
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies pending schema migrations on startup and records how long it took, so a restart against an
+ * up-to-date schema can be told apart from one that had to migrate.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TimedMigrationStrategy implements FlywayMigrationStrategy {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void migrate(Flyway flyway) {
+        long start = System.nanoTime();
+        MigrateResult result = flyway.migrate();
+        long elapsed = System.nanoTime() - start;
+
+        Timer.builder("shareit.schema.migration")
+                .tag("migrations", String.valueOf(result.migrationsExecuted))
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        MigrationInfo current = flyway.info().current();
+        log.info("Schema at version {}: {} migrations applied in {} ms",
+                current == null ? "none" : current.getVersion(), result.migrationsExecuted,
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+}
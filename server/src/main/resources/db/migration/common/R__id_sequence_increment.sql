@@ -0,0 +1,5 @@
+alter sequence users_seq increment by ${id_allocation_size};
+alter sequence request_seq increment by ${id_allocation_size};
+alter sequence items_seq increment by ${id_allocation_size};
+alter sequence bookings_seq increment by ${id_allocation_size};
+alter sequence comments_seq increment by ${id_allocation_size};
@@ -0,0 +1,69 @@
+create sequence users_seq start with 1 increment by 50;
+create sequence request_seq start with 1 increment by 50;
+create sequence items_seq start with 1 increment by 50;
+create sequence bookings_seq start with 1 increment by 50;
+create sequence comments_seq start with 1 increment by 50;
+
+create table USERS (
+    id              BIGINT not null,
+    name            VARCHAR(255),
+    email           VARCHAR(512),
+    constraint UNIQUE_EMAIL UNIQUE (email),
+    constraint USERS_PK primary key (id)
+);
+
+
+create table REQUEST (
+    id              BIGINT not null,
+    description     VARCHAR(1024),
+    created         TIMESTAMP WITHOUT TIME ZONE,
+    requestor_id    BIGINT,
+    constraint REQUEST_PK primary key (id),
+    constraint REQUEST_USERS_REQUESTOR_ID_FK foreign key (requestor_id) references USERS(id) ON DELETE CASCADE
+);
+
+create table ITEMS (
+    id              BIGINT not null,
+    name            VARCHAR(255),
+    description     VARCHAR(1024),
+    available       Boolean,
+    owner_id        BIGINT,
+    request_id      BIGINT,
+    constraint ITEMS_PK primary key (id),
+    constraint ITEMS_USERS_OWNER_ID_FK foreign key (owner_id) references USERS(id) ON DELETE CASCADE,
+    constraint ITEMS_REQUEST_REQUEST_ID_FK foreign key (request_id) references REQUEST(id) ON DELETE CASCADE
+);
+
+create table BOOKINGS (
+    id              BIGINT not null,
+    start_date      TIMESTAMP WITHOUT TIME ZONE,
+    end_date        TIMESTAMP WITHOUT TIME ZONE,
+    item_id         BIGINT,
+    booker_id       BIGINT,
+    status          VARCHAR(16),
+    constraint BOOKINGS_PK primary key (id),
+    constraint BOOKINGS_USERS_BOOKER_ID_FK foreign key (booker_id) references USERS(id) ON DELETE CASCADE,
+    constraint BOOKINGS_ITEMS_ITEMS_ID_FK foreign key (item_id) references ITEMS(id) ON DELETE CASCADE
+);
+
+create table COMMENTS (
+    id              BIGINT not null,
+    text            VARCHAR(255),
+    item_id         BIGINT,
+    author_id       BIGINT,
+    created         TIMESTAMP WITHOUT TIME ZONE,
+    constraint COMMENTS_PK primary key (id),
+    constraint COMMENTS_USERS_BOOKER_ID_FK foreign key (author_id) references USERS(id) ON DELETE CASCADE,
+    constraint COMMENTS_ITEMS_ITEMS_ID_FK foreign key (item_id) references ITEMS(id) ON DELETE CASCADE
+);
+
+CREATE INDEX users_name_idx ON USERS(name);
+CREATE INDEX bookings_booker_start_idx ON BOOKINGS (booker_id, start_date DESC, id DESC);
+CREATE INDEX bookings_item_start_idx ON BOOKINGS (item_id, start_date DESC, id DESC);
+CREATE INDEX items_owner_id_idx ON ITEMS (owner_id);
+CREATE INDEX bookings_item_status_start_idx ON BOOKINGS (item_id, status, start_date, end_date);
+CREATE INDEX items_request_id_idx ON ITEMS (request_id);
+CREATE INDEX comments_item_id_idx ON COMMENTS (item_id);
+CREATE INDEX comments_author_id_idx ON COMMENTS (author_id);
+CREATE INDEX request_requestor_created_idx ON REQUEST (requestor_id, created);
+CREATE INDEX request_created_idx ON REQUEST (created);
@@ -0,0 +1,11 @@
+-- Runs only when Flyway baselines a database created by the old schema.sql, which lacks some indexes of V1.
+CREATE INDEX IF NOT EXISTS users_name_idx ON USERS(name);
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON BOOKINGS (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON BOOKINGS (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON ITEMS (owner_id);
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON BOOKINGS (item_id, status, start_date, end_date);
+CREATE INDEX IF NOT EXISTS items_request_id_idx ON ITEMS (request_id);
+CREATE INDEX IF NOT EXISTS comments_item_id_idx ON COMMENTS (item_id);
+CREATE INDEX IF NOT EXISTS comments_author_id_idx ON COMMENTS (author_id);
+CREATE INDEX IF NOT EXISTS request_requestor_created_idx ON REQUEST (requestor_id, created);
+CREATE INDEX IF NOT EXISTS request_created_idx ON REQUEST (created);
@@ -0,0 +1,13 @@
+-- Runs only when Flyway baselines a database created by the old schema.sql, whose ids come from identity columns.
+-- Identity columns still accept the ids Hibernate assigns, so only the sequences are added. The first value of each
+-- sequence is the top of the first block of ids, which has to lie above the ids already taken.
+create sequence users_seq start with (select coalesce(max(id), 0) + ${id_allocation_size} + 1 from USERS)
+    increment by ${id_allocation_size};
+create sequence request_seq start with (select coalesce(max(id), 0) + ${id_allocation_size} + 1 from REQUEST)
+    increment by ${id_allocation_size};
+create sequence items_seq start with (select coalesce(max(id), 0) + ${id_allocation_size} + 1 from ITEMS)
+    increment by ${id_allocation_size};
+create sequence bookings_seq start with (select coalesce(max(id), 0) + ${id_allocation_size} + 1 from BOOKINGS)
+    increment by ${id_allocation_size};
+create sequence comments_seq start with (select coalesce(max(id), 0) + ${id_allocation_size} + 1 from COMMENTS)
+    increment by ${id_allocation_size};
@@ -0,0 +1,10 @@
+alter table ITEMS add column search_vector tsvector
+    generated always as (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, ''))) stored;
+
+CREATE INDEX items_search_vector_idx ON ITEMS USING gin (search_vector);
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+alter table BOOKINGS add constraint bookings_no_overlap
+    exclude using gist (item_id with =, tsrange(start_date, end_date) with &&)
+    where (status in ('WAITING', 'APPROVED'));
@@ -0,0 +1,14 @@
+-- Runs only when Flyway baselines a database created by the old schema.sql, whose ids come from identity columns.
+-- Identity columns still accept the ids Hibernate assigns, so only the sequences are added. The first value of each
+-- sequence is the top of the first block of ids, which has to lie above the ids already taken.
+create sequence users_seq increment by ${id_allocation_size};
+create sequence request_seq increment by ${id_allocation_size};
+create sequence items_seq increment by ${id_allocation_size};
+create sequence bookings_seq increment by ${id_allocation_size};
+create sequence comments_seq increment by ${id_allocation_size};
+
+select setval('users_seq', (select coalesce(max(id), 0) + ${id_allocation_size} + 1 from USERS), false);
+select setval('request_seq', (select coalesce(max(id), 0) + ${id_allocation_size} + 1 from REQUEST), false);
+select setval('items_seq', (select coalesce(max(id), 0) + ${id_allocation_size} + 1 from ITEMS), false);
+select setval('bookings_seq', (select coalesce(max(id), 0) + ${id_allocation_size} + 1 from BOOKINGS), false);
+select setval('comments_seq', (select coalesce(max(id), 0) + ${id_allocation_size} + 1 from COMMENTS), false);
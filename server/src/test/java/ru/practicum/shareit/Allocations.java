@@ -0,0 +1,35 @@
+package ru.practicum.shareit;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the heap the current thread allocates in a call. Allocation depends on the JVM and library versions, so
+ * tests only compare two measurements with each other instead of asserting absolute sizes.
+ */
+public class Allocations {
+    private static final int WARM_UP_CALLS = 20;
+
+    private Allocations() {
+    }
+
+    /**
+     * Runs {@code call} {@value #WARM_UP_CALLS} times to warm it up, then returns the average bytes allocated by
+     * {@code calls} more runs.
+     */
+    public static long allocatedPerCall(int calls, Runnable call) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        for (int i = 0; i < WARM_UP_CALLS; i++) {
+            call.run();
+        }
+        long total = 0;
+        for (int i = 0; i < calls; i++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            call.run();
+            total += threads.getThreadAllocatedBytes(threadId) - before;
+        }
+        return total / calls;
+    }
+}
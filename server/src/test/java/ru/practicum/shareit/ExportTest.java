@@ -0,0 +1,155 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.export.ExportColumn;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.export.ExportWriter;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "db.name=test")
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+public class ExportTest {
+    private static final int USERS = 1200;
+
+    private final MockMvc mvc;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ExportWriter exportWriter;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+
+    @Test
+    void usersExportStreamsEveryRowAsNdjsonTest() throws Exception {
+        insertUsers();
+
+        String[] lines = export("/users/export", MediaType.APPLICATION_NDJSON).split("\n");
+
+        assertThat(lines.length, equalTo(USERS));
+        UserDto first = objectMapper.readValue(lines[0], UserDto.class);
+        assertThat(first.getId(), equalTo(1L));
+        assertThat(first.getEmail(), equalTo("user1@test.com"));
+        assertThat(objectMapper.readValue(lines[USERS - 1], UserDto.class).getId(), equalTo((long) USERS));
+    }
+
+    @Test
+    void exportManagesNoEntitiesTest() {
+        insertUsers();
+        AtomicInteger maxManaged = new AtomicInteger();
+        ExportColumn<UserDto> probe = ExportColumn.of("managed", user -> maxManaged.accumulateAndGet(
+                entityManager.unwrap(Session.class).getStatistics().getEntityCount(), Math::max));
+
+        Long exported = new TransactionTemplate(transactionManager).execute(status -> {
+            try (Stream<UserDto> users = userRepository.streamAll()) {
+                return exportWriter.write(users, ExportFormat.CSV, List.of(probe), new ByteArrayOutputStream());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(exported, equalTo((long) USERS));
+        assertThat(maxManaged.get(), equalTo(0));
+    }
+
+    @Test
+    void bookingsAndItemsExportAsCsvTest() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        UserDto owner = userService.create(UserDto.builder().name("owner").email("owner@test.com").build());
+        UserDto booker = userService.create(UserDto.builder().name("booker").email("booker@test.com").build());
+        ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("Дрель")
+                .description("Дрель, \"ударная\"")
+                .available(true)
+                .build());
+        BookingDto booking = bookingService.create(booker.getId(), BookingShortDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusDays(1))
+                .build());
+
+        String bookings = export("/bookings/export?format=csv", new MediaType("text", "csv"));
+        String items = export("/items/export?format=CSV", new MediaType("text", "csv"));
+
+        assertThat(List.of(bookings.split("\n")), contains(
+                "id,start,end,status,itemId,itemName,bookerId,bookerEmail",
+                booking.getId() + "," + start + "," + start.plusDays(1) + ",WAITING," + item.getId() + ",Дрель,"
+                        + booker.getId() + ",booker@test.com"));
+        assertThat(List.of(items.split("\n")), contains(
+                "id,name,description,available,requestId",
+                item.getId() + ",Дрель,\"Дрель, \"\"ударная\"\"\",true,"));
+    }
+
+    @Test
+    void unknownFormatIsRejectedTest() throws Exception {
+        mvc.perform(get("/users/export?format=xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String export(String url, MediaType mediaType) throws Exception {
+        MvcResult result = mvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private void insertUsers() {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{i, "user" + i, "user" + i + "@test.com"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+    }
+
+}
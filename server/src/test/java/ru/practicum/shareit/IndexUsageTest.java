@@ -0,0 +1,168 @@
+package ru.practicum.shareit;
+
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.util.BookingCursor;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs EXPLAIN on H2 for the SQL of every repository query and fails when a table is read without an index
+ * condition. A page read in index order is bounded by its FETCH FIRST and passes. Searches with a leading
+ * wildcard cannot use a b-tree index, so they name the table they scan.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.IndexUsageTest$SqlRecorder")
+public class IndexUsageTest {
+    private static final Pattern TABLE_ACCESS =
+            Pattern.compile("\"PUBLIC\"\\.\"(\\w+)\" \"?\\w+\"?\\s*/\\* ([^*]+) \\*/");
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    private final LocalDateTime now = LocalDateTime.now();
+    private final PageRequest page = PageRequest.of(0, 10);
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        User user = em.persist(User.builder().email("test@test.com").name("testName").build());
+        item = em.persist(Item.builder().name("Дрель").description("Простая дрель").available(true).owner(user)
+                .build());
+        em.flush();
+    }
+
+    @Test
+    void bookingQueriesUseIndexesTest() {
+        assertUsesIndexes(() -> bookingRepository.findById(1L));
+        assertUsesIndexes(() -> bookingRepository.findBookerBookings(1L, page));
+        assertUsesIndexes(() -> bookingRepository.findBookerCurrentBookings(1L, now, page));
+        assertUsesIndexes(() -> bookingRepository.findBookerFutureBookings(1L, now, page));
+        assertUsesIndexes(() -> bookingRepository.findBookerPastBookings(1L, now, page));
+        assertUsesIndexes(() -> bookingRepository.findBookerBookingsByStatus(1L, BookingStatus.WAITING, page));
+        assertUsesIndexes(() -> bookingRepository.findOwnerBookings(1L, page));
+        assertUsesIndexes(() -> bookingRepository.findOwnerCurrentBookings(1L, now, page));
+        assertUsesIndexes(() -> bookingRepository.findOwnerFutureBookings(1L, now, page));
+        assertUsesIndexes(() -> bookingRepository.findOwnerPastBookings(1L, now, page));
+        assertUsesIndexes(() -> bookingRepository.findOwnerBookingsByStatus(1L, BookingStatus.WAITING, page));
+        for (BookingState state : BookingState.values()) {
+            assertUsesIndexes(() -> bookingRepository.findBookerPage(1L, state, now, new BookingCursor(now, 1L), 10));
+            assertUsesIndexes(() -> bookingRepository.findOwnerPage(1L, state, now, new BookingCursor(now, 1L), 10));
+        }
+        assertUsesIndexes(() -> bookingRepository.findTimelineBookings(List.of(1L, 2L), BookingStatus.APPROVED));
+        assertUsesIndexes(() -> bookingRepository.findIntervalBookings(1L, Set.of(BookingStatus.WAITING)));
+        assertUsesIndexes(() -> bookingRepository.existsOverlapping(1L, Set.of(BookingStatus.WAITING), now, now));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItem(item, BookingStatus.APPROVED, 1L, now));
+    }
+
+    @Test
+    void itemQueriesUseIndexesTest() {
+        assertUsesIndexes(() -> itemRepository.findById(1L));
+        assertUsesIndexes(() -> itemRepository.existsByOwnerId(1L));
+        assertUsesIndexes(() -> itemRepository.findByIdForUpdate(1L));
+        assertUsesIndexes(() -> itemRepository.findOwnerItems(1L, page));
+        assertUsesIndexes(() -> itemRepository.findByRequestIdIn(List.of(1L, 2L)));
+        assertUsesIndexes(() -> itemRepository.search("дрель", page), "ITEMS");
+        assertUsesIndexes(() -> itemRepository.searchIds("дрель", page), "ITEMS");
+        assertUsesIndexes(() -> itemRepository.findAvailableBetween(
+                BookingStatus.APPROVED, now, now.plusDays(1), page), "ITEMS");
+        assertUsesIndexes(() -> itemRepository.findAvailableAmong(
+                List.of(1L, 2L), BookingStatus.APPROVED, now, now.plusDays(1)));
+    }
+
+    @Test
+    void userQueriesUseIndexesTest() {
+        assertUsesIndexes(() -> userRepository.findPage(page));
+        assertUsesIndexes(() -> userRepository.findPageAfter(1L, page));
+    }
+
+    @Test
+    void requestAndCommentQueriesUseIndexesTest() {
+        assertUsesIndexes(() -> itemRequestRepository.findById(1L));
+        assertUsesIndexes(() -> itemRequestRepository.findByRequestorIdOrderByCreatedAsc(1L));
+        assertUsesIndexes(() -> itemRequestRepository.findByRequestorIdNotOrderByCreatedAsc(1L, page));
+        assertUsesIndexes(() -> commentRepository.findByItemIdIn(List.of(1L, 2L)));
+    }
+
+    private void assertUsesIndexes(Runnable query, String... scannedTables) {
+        em.clear();
+        SqlRecorder.STATEMENTS.clear();
+        query.run();
+        Assertions.assertFalse(SqlRecorder.STATEMENTS.isEmpty());
+
+        for (String sql : SqlRecorder.STATEMENTS) {
+            String plan = explain(sql);
+            boolean boundedIndexWalk = plan.contains("/* index sorted */") && plan.contains("FETCH FIRST");
+            Matcher matcher = TABLE_ACCESS.matcher(plan);
+            List<String> tables = new ArrayList<>();
+            while (matcher.find()) {
+                tables.add(matcher.group(1));
+                boolean fullScan = !matcher.group(2).contains(":")
+                        && !(boundedIndexWalk && !matcher.group(2).endsWith("tableScan"));
+                if (fullScan && !List.of(scannedTables).contains(matcher.group(1))) {
+                    Assertions.fail("Full scan of " + matcher.group(1) + " in plan:\n" + plan);
+                }
+            }
+            Assertions.assertFalse(tables.isEmpty(), "No table access in plan:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return em.getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+}
@@ -0,0 +1,209 @@
+package ru.practicum.shareit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static ru.practicum.shareit.user.util.UserHeader.USER_HEADER;
+import static ru.practicum.shareit.util.IdSequence.DEFAULT_ALLOCATION_SIZE;
+
+@DirtiesContext
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.max-lifetime=600000",
+        "shareit.datasource.replicas=" + ReplicaRoutingTest.REPLICA_URL + ";IFEXISTS=TRUE",
+        "shareit.datasource.replica-check-interval=PT1H",
+        "shareit.datasource.replica-timeout=PT1S",
+        "shareit.datasource.read-your-writes=PT1M"})
+public class ReplicaRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserExistenceCache userExistenceCache;
+    @Autowired
+    private BookingTimeline bookingTimeline;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "test", "test");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .placeholders(Map.of("id_allocation_size", String.valueOf(DEFAULT_ALLOCATION_SIZE)))
+                .load()
+                .migrate();
+        replica = new JdbcTemplate(dataSource);
+        replica.update("delete from users");
+        routingDataSource.checkReplicas();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaTest() {
+        userService.create(UserDto.builder().name("primary").email("primary@test.com").build());
+        replica.update("insert into users (id, name, email) values (1000, 'replica', 'replica@test.com')");
+
+        assertThat(emails(userService.findAllUsers(0, 10)), contains("replica@test.com"));
+    }
+
+    @Test
+    void unhealthyReplicaFallsBackToPrimaryTest() {
+        userService.create(UserDto.builder().name("fallback").email("fallback@test.com").build());
+        assertThat(userService.findAllUsers(0, 10), empty());
+
+        replica.execute("SHUTDOWN");
+        routingDataSource.checkReplicas();
+
+        assertThat(routingDataSource.getHealthyReplicas(), empty());
+        assertThat(emails(userService.findAllUsers(0, 10)), hasItem("fallback@test.com"));
+    }
+
+    @Test
+    void writerReadsOwnWritesFromPrimaryTest() {
+        UserDto writer = userService.create(UserDto.builder().name("writer").email("writer@test.com").build());
+
+        actAs(writer.getId());
+        userService.update(writer.getId(), UserDto.builder().name("updated").build());
+        assertThat(userService.findById(writer.getId()).getName(), equalTo("updated"));
+
+        actAs(writer.getId() + 1);
+        assertThat(userService.findAllUsers(0, 10), empty());
+    }
+
+    @Test
+    void cacheLoadsReadPrimaryWhileReplicaLagsTest() {
+        // rows written straight to the primary, so no service call has cached them and the replica hasn't seen them
+        JdbcTemplate primary = new JdbcTemplate(routingDataSource.getResolvedDataSources().get("primary"));
+        LocalDateTime now = LocalDateTime.now();
+        primary.update("insert into users (id, name, email) values (100001, 'owner', 'owner@test.com')");
+        primary.update("insert into users (id, name, email) values (100002, 'booker', 'booker@test.com')");
+        primary.update("insert into items (id, name, description, available, owner_id) " +
+                "values (100001, 'Дрель', 'Простая дрель', true, 100001)");
+        primary.update("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "values (100001, ?, ?, 100001, 100002, 'APPROVED')", now.plusDays(1), now.plusDays(2));
+
+        // the first read pins the transaction to the replica
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            assertThat(userService.findAllUsers(0, 10), empty());
+            assertThat(userExistenceCache.exists(100001L), equalTo(true));
+            assertThat(bookingTimeline.findByItemIds(List.of(100001L)).get(100001L).size(), equalTo(1));
+        });
+        assertThat(userExistenceCache.exists(100002L), equalTo(true));
+    }
+
+    @Test
+    void replicaReadsSkipSecondLevelCacheTest() {
+        UserDto user = userService.create(UserDto.builder().name("fresh").email("fresh@test.com").build());
+        replica.update("insert into users (id, name, email) values (?, 'stale', 'fresh@test.com')", user.getId());
+        entityManagerFactory.getCache().evictAll();
+
+        assertThat(userService.findById(user.getId()).getName(), equalTo("stale"));
+        assertThat(entityManagerFactory.getCache().contains(User.class, user.getId()), equalTo(false));
+
+        assertThat(ReplicaRoutingDataSource.onPrimary(() -> userService.findById(user.getId())).getName(),
+                equalTo("fresh"));
+        assertThat(entityManagerFactory.getCache().contains(User.class, user.getId()), equalTo(true));
+        assertThat(userService.findById(user.getId()).getName(), equalTo("fresh"));
+    }
+
+    @Test
+    void expiredWritesArePrunedOnScheduleTest() throws Exception {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:routing-primary", "test", "test");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, Map.of(), Duration.ofHours(1),
+                Duration.ofSeconds(1), Duration.ofMillis(50));
+        DataSource lazy = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(lazy));
+        try {
+            for (long userId = 1; userId <= 3; userId++) {
+                actAs(userId);
+                transaction.executeWithoutResult(status -> new JdbcTemplate(lazy).execute("select 1"));
+            }
+            assertThat(routing.getTrackedWriters(), equalTo(3));
+
+            // nothing writes any more, so only the scheduled pruning can forget the writers
+            Thread.sleep(300);
+
+            assertThat(routing.getTrackedWriters(), equalTo(0));
+        } finally {
+            routing.destroy();
+        }
+    }
+
+    @Test
+    void poolsUseHikariSettingsTest() {
+        HikariDataSource primary = (HikariDataSource) routingDataSource.getResolvedDataSources().get("primary");
+        HikariDataSource replica = (HikariDataSource) routingDataSource.getResolvedDataSources().get("replica-0");
+
+        for (HikariDataSource pool : List.of(primary, replica)) {
+            assertThat(pool.getMaximumPoolSize(), equalTo(4));
+            assertThat(pool.getMaxLifetime(), equalTo(600000L));
+        }
+        assertThat(primary.getJdbcUrl(), equalTo("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1"));
+        assertThat(primary.getConnectionTimeout(), equalTo(30000L));
+        assertThat(replica.getJdbcUrl(), equalTo(REPLICA_URL + ";IFEXISTS=TRUE"));
+        assertThat(replica.getConnectionTimeout(), equalTo(1000L));
+        assertThat(replica.getInitializationFailTimeout(), equalTo(-1L));
+    }
+
+    private void actAs(Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(USER_HEADER, userId);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static List<String> emails(List<UserDto> users) {
+        return users.stream()
+                .map(UserDto::getEmail)
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static ru.practicum.shareit.util.IdSequence.DEFAULT_ALLOCATION_SIZE;
+
+@DataJpaTest
+public class SchemaMigrationTest {
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void schemaIsAtLatestVersionTest() {
+        Assertions.assertEquals("2", flyway.info().current().getVersion().getVersion());
+        Assertions.assertEquals(0, flyway.info().pending().length);
+        Assertions.assertDoesNotThrow(() -> flyway.validate());
+    }
+
+    @Test
+    void restartKeepsDataTest() {
+        User user = em.persistFlushFind(User.builder().email("test@test.com").name("testName").build());
+
+        Assertions.assertEquals(0, flyway.migrate().migrationsExecuted);
+        Assertions.assertTrue(userRepository.existsById(user.getId()));
+    }
+
+    @Test
+    void upgradesLegacySchemaTest() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1",
+                "test", "test");
+        new ResourceDatabasePopulator(new ClassPathResource("legacy-schema.sql")).execute(dataSource);
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+        legacy.update("insert into users (name, email) values ('first', 'first@test.com')");
+        legacy.update("insert into users (name, email) values ('second', 'second@test.com')");
+        legacy.update("insert into items (name, description, available, owner_id) " +
+                "values ('Дрель', 'Простая дрель', true, 2)");
+
+        Flyway upgrade = Flyway.configure()
+                .configuration(flyway.getConfiguration())
+                .dataSource(dataSource)
+                .load();
+        upgrade.migrate();
+
+        Assertions.assertEquals("2", upgrade.info().current().getVersion().getVersion());
+        Assertions.assertDoesNotThrow(upgrade::validate);
+        Assertions.assertEquals(2L + DEFAULT_ALLOCATION_SIZE + 1,
+                legacy.queryForObject("select next value for users_seq", Long.class));
+        Assertions.assertEquals(1L + DEFAULT_ALLOCATION_SIZE + 1,
+                legacy.queryForObject("select next value for items_seq", Long.class));
+        Assertions.assertEquals(DEFAULT_ALLOCATION_SIZE + 1L,
+                legacy.queryForObject("select next value for bookings_seq", Long.class));
+        Assertions.assertEquals(1, legacy.queryForObject("select count(*) from information_schema.indexes " +
+                "where index_name = 'COMMENTS_ITEM_ID_IDX'", Integer.class));
+        Assertions.assertEquals(1, legacy.queryForObject("select count(*) from FT_SEARCH('Дрель', 0, 0)",
+                Integer.class));
+    }
+
+}
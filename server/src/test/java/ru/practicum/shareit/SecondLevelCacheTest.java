@@ -0,0 +1,107 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static ru.practicum.shareit.cache.CacheRegions.ITEMS;
+import static ru.practicum.shareit.cache.CacheRegions.ITEM_QUERIES;
+import static ru.practicum.shareit.cache.CacheRegions.USERS;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+public class SecondLevelCacheTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+    private Statistics statistics;
+    private UserDto owner;
+    private ItemDto item;
+
+    @BeforeEach
+    public void setUp() {
+        owner = userService.create(UserDto.builder().name("owner").email("owner@test.com").build());
+        item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findByIdReadsCachedEntityTest() {
+        userService.findById(owner.getId());
+        userService.findById(owner.getId());
+
+        assertThat(statistics.getCacheRegionStatistics(USERS).getHitCount(), equalTo(2L));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+        assertThat(meterRegistry.get("shareit.cache.hit.ratio").tag("region", USERS).gauge().value(),
+                closeTo(1.0, 0.001));
+    }
+
+    @Test
+    void updateRefreshesCachedEntityTest() {
+        userService.update(owner.getId(), UserDto.builder().name("updated").build());
+
+        assertThat(userService.findById(owner.getId()).getName(), equalTo("updated"));
+    }
+
+    @Test
+    void ownerItemsQueryIsCachedUntilItemIsSavedTest() {
+        itemRepository.findOwnerItems(owner.getId(), PageRequest.of(0, 10));
+        List<ItemDto> cached = itemRepository.findOwnerItems(owner.getId(), PageRequest.of(0, 10));
+
+        assertThat(cached, hasSize(1));
+        assertThat(cached.get(0).getName(), equalTo("Дрель"));
+        assertThat(statistics.getCacheRegionStatistics(ITEM_QUERIES).getHitCount(), equalTo(1L));
+
+        itemService.create(owner.getId(), ItemDto.builder()
+                .name("Отвертка")
+                .description("Простая отвертка")
+                .available(true)
+                .build());
+
+        assertThat(itemRepository.findOwnerItems(owner.getId(), PageRequest.of(0, 10)), hasSize(2));
+        assertThat(statistics.getCacheRegionStatistics(ITEM_QUERIES).getHitCount(), equalTo(1L));
+    }
+
+    @Test
+    void userDeletionEvictsCascadedItemsTest() {
+        itemRepository.findById(item.getId());
+        assertThat(statistics.getCacheRegionStatistics(ITEMS).getHitCount(), equalTo(1L));
+
+        userService.delete(owner.getId());
+
+        assertThat(itemRepository.findById(item.getId()).isPresent(), equalTo(false));
+        assertThat(itemRepository.findOwnerItems(owner.getId(), PageRequest.of(0, 10)), hasSize(0));
+    }
+
+}
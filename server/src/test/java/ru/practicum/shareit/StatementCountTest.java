@@ -0,0 +1,177 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.user.util.UserHeader.USER_HEADER;
+
+/**
+ * Counts the statements each read endpoint issues against a fixture of several users, items and bookings,
+ * so a lazy association that is read outside its entity graph shows up as an extra statement per row.
+ */
+@Transactional
+@SpringBootTest(properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+public class StatementCountTest {
+    private static final int SIZE = 3;
+
+    private final MockMvc mvc;
+    private final EntityManager entityManager;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService itemRequestService;
+    private UserDto owner;
+    private List<UserDto> bookers;
+    private List<ItemDto> items;
+    private List<ItemRequestDto> requests;
+    private BookingDto booking;
+
+    @BeforeEach
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        owner = userService.create(UserDto.builder().name("owner").email("owner@test.com").build());
+        bookers = new ArrayList<>();
+        items = new ArrayList<>();
+        requests = new ArrayList<>();
+
+        for (int i = 0; i < SIZE; i++) {
+            UserDto booker = userService.create(UserDto.builder()
+                    .name("booker" + i)
+                    .email("booker" + i + "@test.com")
+                    .build());
+            ItemRequestDto request = itemRequestService.create(booker.getId(), ItemRequestDto.builder()
+                    .description("Нужна дрель " + i)
+                    .build());
+            ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                    .name("Дрель " + i)
+                    .description("Простая дрель")
+                    .available(true)
+                    .requestId(request.getId())
+                    .build());
+            bookers.add(booker);
+            requests.add(request);
+            items.add(item);
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            BookingDto past = bookingService.create(bookers.get(i).getId(), BookingShortDto.builder()
+                    .itemId(items.get(i).getId())
+                    .start(now.minusDays(2))
+                    .end(now.minusDays(1))
+                    .build());
+            bookingService.approve(owner.getId(), past.getId(), true);
+            itemService.addComment(bookers.get(i).getId(), items.get(i).getId(),
+                    CommentDto.builder().text("Отличная дрель " + i).build());
+
+            booking = bookingService.create(bookers.get(i).getId(), BookingShortDto.builder()
+                    .itemId(items.get((i + 1) % SIZE).getId())
+                    .start(now.plusDays(i + 1))
+                    .end(now.plusDays(i + 2))
+                    .build());
+        }
+    }
+
+    @Test
+    void findBookingByIdTest() throws Exception {
+        assertThat(statementsOf(get("/bookings/{id}", booking.getId()), owner), equalTo(1L));
+    }
+
+    @Test
+    void findBookingsMadeByUserTest() throws Exception {
+        assertThat(statementsOf(get("/bookings"), bookers.get(0)), equalTo(1L));
+    }
+
+    @Test
+    void findBookingsMadeByUserAfterCursorTest() throws Exception {
+        assertThat(statementsOf(get("/bookings").param("cursor", ""), bookers.get(0)), equalTo(1L));
+    }
+
+    @Test
+    void findBookingsOfItemsTest() throws Exception {
+        assertThat(statementsOf(get("/bookings/owner"), owner), equalTo(2L));
+    }
+
+    @Test
+    void findItemByIdTest() throws Exception {
+        assertThat(statementsOf(get("/items/{id}", items.get(0).getId()), owner), equalTo(3L));
+    }
+
+    @Test
+    void findAllItemsOfUserTest() throws Exception {
+        assertThat(statementsOf(get("/items"), owner), equalTo(3L));
+    }
+
+    @Test
+    void searchItemsTest() throws Exception {
+        assertThat(statementsOf(get("/items/search").param("text", "дрель"), owner), equalTo(1L));
+    }
+
+    @Test
+    void findAvailableItemsTest() throws Exception {
+        assertThat(statementsOf(get("/items/available")
+                .param("start", LocalDateTime.now().plusDays(1).toString())
+                .param("end", LocalDateTime.now().plusDays(2).toString()), owner), equalTo(1L));
+    }
+
+    @Test
+    void findAllRequestsOfUserTest() throws Exception {
+        assertThat(statementsOf(get("/requests"), bookers.get(0)), equalTo(2L));
+    }
+
+    @Test
+    void findAllRequestsExceptYoursTest() throws Exception {
+        assertThat(statementsOf(get("/requests/all"), owner), equalTo(2L));
+    }
+
+    @Test
+    void findRequestByIdTest() throws Exception {
+        assertThat(statementsOf(get("/requests/{id}", requests.get(0).getId()), owner), equalTo(2L));
+    }
+
+    private long statementsOf(MockHttpServletRequestBuilder request, UserDto user) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mvc.perform(request.header(USER_HEADER, user.getId()))
+                .andExpect(status().isOk());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+}
@@ -12,6 +12,7 @@ import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.util.BookingCursor;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -30,9 +31,11 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.user.util.UserHeader.USER_HEADER;
+import static ru.practicum.shareit.util.PagingHeaders.NEXT_CURSOR_HEADER;
 
 @WebMvcTest(controllers = BookingController.class)
 public class BookingControllerTest {
@@ -164,4 +167,35 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.[0].item.id", is(bookingDto.getItem().getId()), Long.class))
                 .andExpect(jsonPath("$.[0].status", is(bookingDto.getStatus().toString())));
     }
+
+    @Test
+    void getOwnerBookingsAfterCursorTest() throws Exception {
+        when(bookingService.findBookingsOfItemsAfter(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(bookings);
+
+        mvc.perform(get("/bookings/owner")
+                        .header(USER_HEADER, 1)
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR_HEADER,
+                        new BookingCursor(bookingDto.getStart(), bookingDto.getId()).encode()))
+                .andExpect(jsonPath("$.[0].id", is(bookingDto.getId()), Long.class));
+    }
+
+    @Test
+    void getBookingsAfterCursorLastPageTest() throws Exception {
+        when(bookingService.findBookingsMadeByUserAfter(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(bookings);
+
+        mvc.perform(get("/bookings")
+                        .header(USER_HEADER, 1)
+                        .param("cursor", "")
+                        .param("size", "10")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$.[0].id", is(bookingDto.getId()), Long.class));
+    }
 }
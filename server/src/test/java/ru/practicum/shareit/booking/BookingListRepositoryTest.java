@@ -0,0 +1,145 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.shareit.Allocations;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingListRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.JdbcBookingListRepository;
+import ru.practicum.shareit.booking.repository.JpaBookingListRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+public class BookingListRepositoryTest {
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private BookingListRepository jpa;
+    private BookingListRepository jdbc;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    private User booker;
+    private User owner;
+    private Item drill;
+
+    @BeforeEach
+    public void setUp() {
+        jpa = new JpaBookingListRepository(bookingRepository);
+        jdbc = new JdbcBookingListRepository(jdbcTemplate, em.getEntityManager());
+
+        booker = em.persist(User.builder().email("booker@test.com").name("booker").build());
+        owner = em.persist(User.builder().email("owner@test.com").name("owner").build());
+        ItemRequest request = em.persist(ItemRequest.builder()
+                .description("Нужна дрель")
+                .created(now.minusDays(10))
+                .requestor(booker)
+                .build());
+        drill = em.persist(Item.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .build());
+        Item screwdriver = em.persist(Item.builder()
+                .name("Отвертка")
+                .description("Аккумуляторная отвертка")
+                .available(false)
+                .owner(owner)
+                .build());
+
+        em.persist(booking(drill, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED));
+        em.persist(booking(screwdriver, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED));
+        em.persist(booking(drill, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING));
+        em.persist(booking(screwdriver, now.plusDays(3), now.plusDays(4), BookingStatus.REJECTED));
+        em.persist(booking(drill, now.plusDays(5), now.plusDays(6), BookingStatus.WAITING));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void jdbcListsMatchJpaListsTest() {
+        for (Pageable page : List.of(PageRequest.of(0, 10), PageRequest.of(1, 2))) {
+            assertSameLists(r -> r.findBookerBookings(booker.getId(), page));
+            assertSameLists(r -> r.findBookerCurrentBookings(booker.getId(), now, page));
+            assertSameLists(r -> r.findBookerFutureBookings(booker.getId(), now, page));
+            assertSameLists(r -> r.findBookerPastBookings(booker.getId(), now, page));
+            assertSameLists(r -> r.findBookerBookingsByStatus(booker.getId(), BookingStatus.WAITING, page));
+            assertSameLists(r -> r.findOwnerBookings(owner.getId(), page));
+            assertSameLists(r -> r.findOwnerCurrentBookings(owner.getId(), now, page));
+            assertSameLists(r -> r.findOwnerFutureBookings(owner.getId(), now, page));
+            assertSameLists(r -> r.findOwnerPastBookings(owner.getId(), now, page));
+            assertSameLists(r -> r.findOwnerBookingsByStatus(owner.getId(), BookingStatus.REJECTED, page));
+        }
+        Assertions.assertEquals(5, jdbc.findOwnerBookings(owner.getId(), PageRequest.of(0, 10)).size());
+        Assertions.assertTrue(jdbc.findOwnerBookings(booker.getId(), PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void jdbcListAllocatesLessThanJpaListTest() {
+        for (int i = 0; i < 195; i++) {
+            em.persist(booking(em.merge(drill), now.plusDays(10 + i), now.plusDays(11 + i), BookingStatus.APPROVED));
+        }
+        em.flush();
+        Pageable page = PageRequest.of(0, 200);
+
+        long jpaBytes = allocatedPerCall(() -> jpa.findBookerBookings(booker.getId(), page));
+        long jdbcBytes = allocatedPerCall(() -> jdbc.findBookerBookings(booker.getId(), page));
+
+        Assertions.assertTrue(jdbcBytes < jpaBytes, "jdbc: " + jdbcBytes + " bytes, jpa: " + jpaBytes + " bytes");
+    }
+
+    private void assertSameLists(Function<BookingListRepository, List<BookingDto>> query) {
+        List<String> expected = describe(query.apply(jpa));
+        Assertions.assertEquals(expected, describe(query.apply(jdbc)));
+    }
+
+    private long allocatedPerCall(Supplier<List<BookingDto>> call) {
+        Assertions.assertEquals(200, call.get().size());
+        return Allocations.allocatedPerCall(50, () -> {
+            em.clear();
+            call.get();
+        });
+    }
+
+    private List<String> describe(List<BookingDto> bookings) {
+        return bookings.stream()
+                .map(b -> List.of(b.getId(), b.getStart(), b.getEnd(), b.getStatus(),
+                        b.getItem().getId(), b.getItem().getName(), b.getItem().getDescription(),
+                        b.getItem().getAvailable(), String.valueOf(b.getItem().getRequestId()),
+                        b.getBooker().getId(), b.getBooker().getName(), b.getBooker().getEmail()).toString())
+                .collect(Collectors.toList());
+    }
+
+    private Booking booking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build();
+    }
+
+}
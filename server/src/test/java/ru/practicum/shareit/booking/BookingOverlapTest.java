@@ -0,0 +1,134 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Runs without a test transaction so that concurrent creates really commit against each other.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BookingOverlapTest {
+    private static final int ITEMS = 5;
+    private static final int SLOTS_PER_ITEM = 10;
+    private static final int ATTEMPTS = 2000;
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final List<ItemDto> items = new ArrayList<>();
+    private final List<UserDto> bookers = new ArrayList<>();
+    private LocalDateTime base;
+
+    @BeforeEach
+    public void setUp() {
+        UserDto owner = userService.create(UserDto.builder().email("owner@test.com").name("owner").build());
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemService.create(owner.getId(), ItemDto.builder()
+                    .name("Дрель " + i)
+                    .description("Простая дрель")
+                    .available(true)
+                    .build()));
+        }
+        for (int i = 0; i < 4; i++) {
+            bookers.add(userService.create(UserDto.builder().email("booker" + i + "@test.com").name("booker").build()));
+        }
+        base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void exactlyOneConcurrentCreateWinsPerSlotTest() throws Exception {
+        int slots = ITEMS * SLOTS_PER_ITEM;
+        AtomicIntegerArray wins = new AtomicIntegerArray(slots);
+        AtomicIntegerArray conflicts = new AtomicIntegerArray(slots);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            int slot = attempt % slots;
+            // Every other attempt is shifted by half an hour: it still overlaps its slot but not the next one
+            long shift = attempt / slots % 2 * 30;
+            UserDto booker = bookers.get(attempt % bookers.size());
+            LocalDateTime start = base.plusHours(2L * (slot % SLOTS_PER_ITEM)).plusMinutes(shift);
+            BookingShortDto booking = BookingShortDto.builder()
+                    .itemId(items.get(slot / SLOTS_PER_ITEM).getId())
+                    .start(start)
+                    .end(start.plusHours(1))
+                    .build();
+
+            futures.add(executor.submit(() -> {
+                try {
+                    bookingService.create(booker.getId(), booking);
+                    wins.incrementAndGet(slot);
+                } catch (ConflictException e) {
+                    conflicts.incrementAndGet(slot);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (int slot = 0; slot < slots; slot++) {
+            Assertions.assertEquals(1, wins.get(slot), "slot " + slot);
+            Assertions.assertEquals(ATTEMPTS / slots - 1, conflicts.get(slot), "slot " + slot);
+        }
+        Assertions.assertEquals(slots, bookingRepository.count());
+    }
+
+    @Test
+    void rejectedBookingFreesSlotTest() {
+        BookingShortDto booking = BookingShortDto.builder()
+                .itemId(items.get(0).getId())
+                .start(base)
+                .end(base.plusHours(1))
+                .build();
+        BookingDto first = bookingService.create(bookers.get(0).getId(), booking);
+
+        Assertions.assertThrows(ConflictException.class, () -> bookingService.create(bookers.get(1).getId(), booking));
+
+        UserDto owner = userService.findAllUsers(0, 10).get(0);
+        bookingService.approve(owner.getId(), first.getId(), false);
+        BookingDto second = bookingService.create(bookers.get(1).getId(), booking);
+
+        Assertions.assertNotEquals(first.getId(), second.getId());
+        Assertions.assertThrows(ConflictException.class, () -> bookingService.create(bookers.get(2).getId(),
+                BookingShortDto.builder()
+                        .itemId(items.get(0).getId())
+                        .start(base.minusMinutes(30))
+                        .end(base.plusMinutes(1))
+                        .build()));
+        bookingService.create(bookers.get(2).getId(), BookingShortDto.builder()
+                .itemId(items.get(0).getId())
+                .start(base.plusHours(1))
+                .end(base.plusHours(2))
+                .build());
+    }
+}
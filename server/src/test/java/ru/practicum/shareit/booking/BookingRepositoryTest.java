@@ -3,21 +3,37 @@ package ru.practicum.shareit.booking;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.Allocations;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.ItemTimeline;
+import ru.practicum.shareit.booking.util.BookingCursor;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @DataJpaTest
 public class BookingRepositoryTest {
@@ -47,8 +63,8 @@ public class BookingRepositoryTest {
                 .build();
 
         booking = Booking.builder()
-                .start(LocalDateTime.now().plusNanos(1))
-                .end(LocalDateTime.now().plusNanos(2))
+                .start(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusNanos(1000))
+                .end(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusNanos(2000))
                 .item(item)
                 .booker(user)
                 .status(BookingStatus.WAITING)
@@ -76,11 +92,19 @@ public class BookingRepositoryTest {
         itemRepository.save(item);
         bookingRepository.save(booking);
 
-        List<Booking> pageBookings = bookingRepository.getAllBookingsById(userFromDB.getId(), pageable);
-        Booking bookingFromDB = pageBookings.get(0);
+        List<BookingDto> pageBookings = bookingRepository.findBookerBookings(userFromDB.getId(), pageable);
+        BookingDto bookingFromDB = pageBookings.get(0);
 
         Assertions.assertNotNull(pageBookings);
-        checkBookingAreTheSame(booking, bookingFromDB);
+        Assertions.assertEquals(booking.getId(), bookingFromDB.getId());
+        Assertions.assertEquals(booking.getStart(), bookingFromDB.getStart());
+        Assertions.assertEquals(booking.getEnd(), bookingFromDB.getEnd());
+        Assertions.assertEquals(item.getId(), bookingFromDB.getItem().getId());
+        Assertions.assertEquals(item.getName(), bookingFromDB.getItem().getName());
+        Assertions.assertNull(bookingFromDB.getItem().getRequestId());
+        Assertions.assertEquals(user.getId(), bookingFromDB.getBooker().getId());
+        Assertions.assertEquals(user.getEmail(), bookingFromDB.getBooker().getEmail());
+        Assertions.assertEquals(booking.getStatus(), bookingFromDB.getStatus());
     }
 
     @Test
@@ -90,7 +114,7 @@ public class BookingRepositoryTest {
         Booking bookingSaved = bookingRepository.save(booking);
 
         List<Booking> listBookings = bookingRepository.findBookingsByItem(
-                itemFromDB, bookingSaved.getStatus(), userFromDB.getId(), LocalDateTime.now().plusNanos(3));
+                itemFromDB, bookingSaved.getStatus(), userFromDB.getId(), LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusNanos(3000));
         Booking bookingFromDB = listBookings.get(0);
 
         Assertions.assertNotNull(listBookings);
@@ -98,6 +122,168 @@ public class BookingRepositoryTest {
         checkBookingAreTheSame(booking, bookingFromDB);
     }
 
+    @Test
+    void findBookingsByItemOwnerTest() {
+        User owner = userRepository.save(user);
+        User otherOwner = userRepository.save(User.builder().email("other@test.com").name("other").build());
+        item.setOwner(owner);
+        Item ownerItem = itemRepository.save(item);
+        Item otherItem = itemRepository.save(Item.builder()
+                .name("Отвертка")
+                .description("Аккумуляторная отвертка")
+                .available(true)
+                .owner(otherOwner)
+                .build());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Booking past = bookingRepository.save(approvedBooking(ownerItem, otherOwner, now.minusDays(2), now.minusDays(1)));
+        Booking future = bookingRepository.save(approvedBooking(ownerItem, otherOwner, now.plusDays(1), now.plusDays(2)));
+        bookingRepository.save(approvedBooking(otherItem, owner, now.plusDays(3), now.plusDays(4)));
+        Pageable page = PageRequest.of(0, 10);
+
+        List<BookingDto> all = bookingRepository.findOwnerBookings(owner.getId(), page);
+        Assertions.assertEquals(List.of(future.getId(), past.getId()), dtoIds(all));
+        Assertions.assertEquals(List.of(future.getId()), dtoIds(bookingRepository
+                .findOwnerFutureBookings(owner.getId(), now, page)));
+        Assertions.assertEquals(List.of(past.getId()), dtoIds(bookingRepository
+                .findOwnerPastBookings(owner.getId(), now, page)));
+        Assertions.assertTrue(bookingRepository.findOwnerCurrentBookings(owner.getId(), now, page).isEmpty());
+        Assertions.assertEquals(2, bookingRepository.findOwnerBookingsByStatus(
+                owner.getId(), BookingStatus.APPROVED, page).size());
+        Assertions.assertEquals(List.of(future.getId(), past.getId()), dtoIds(bookingRepository
+                .findBookerBookings(otherOwner.getId(), page)));
+        Assertions.assertTrue(itemRepository.existsByOwnerId(otherOwner.getId()));
+    }
+
+    @Test
+    void findTimelineBookingsTest() {
+        User booker = userRepository.save(user);
+        Item itemFromDB = itemRepository.save(item);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Booking past = bookingRepository.save(approvedBooking(itemFromDB, booker, now.minusDays(3), now.minusDays(2)));
+        Booking last = bookingRepository.save(approvedBooking(itemFromDB, booker, now.minusDays(1), now.plusHours(1)));
+        Booking next = bookingRepository.save(approvedBooking(itemFromDB, booker, now.plusDays(1), now.plusDays(2)));
+        Booking later = bookingRepository.save(approvedBooking(itemFromDB, booker, now.plusDays(3), now.plusDays(4)));
+        booking.setStart(now.plusHours(2));
+        booking.setEnd(now.plusHours(3));
+        bookingRepository.save(booking);
+
+        List<ItemBookingView> views = bookingRepository.findTimelineBookings(
+                List.of(itemFromDB.getId()), BookingStatus.APPROVED);
+        ItemTimeline timeline = ItemTimeline.of(views);
+
+        Assertions.assertEquals(Set.of(past.getId(), last.getId(), next.getId(), later.getId()),
+                views.stream().map(ItemBookingView::getId).collect(Collectors.toSet()));
+        for (ItemBookingView view : views) {
+            Assertions.assertEquals(itemFromDB.getId(), view.getItemId());
+            Assertions.assertEquals(booker.getId(), view.getBookerId());
+        }
+        Assertions.assertEquals(last.getId(), timeline.last(now).getId());
+        Assertions.assertEquals(next.getId(), timeline.next(now).getId());
+    }
+
+    @Test
+    void findBookerAndOwnerPagesWalkAllBookingsTest() {
+        User booker = userRepository.save(user);
+        item.setOwner(booker);
+        Item itemFromDB = itemRepository.save(item);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Booking> expected = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            LocalDateTime start = now.minusHours(i / 3);
+            expected.add(bookingRepository.save(approvedBooking(itemFromDB, booker, start, start.plusMinutes(30))));
+        }
+        expected.sort(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed());
+
+        Assertions.assertEquals(ids(expected), walkPages(cursor -> bookingRepository.findBookerPage(
+                booker.getId(), BookingState.ALL, now, cursor, 7)));
+        Assertions.assertEquals(ids(expected), walkPages(cursor -> bookingRepository.findOwnerPage(
+                booker.getId(), BookingState.ALL, now, cursor, 7)));
+        Assertions.assertEquals(ids(expected.subList(0, 3)), walkPages(cursor -> bookingRepository.findBookerPage(
+                booker.getId(), BookingState.CURRENT, now.plusMinutes(1), cursor, 2)));
+        Assertions.assertTrue(bookingRepository.findOwnerPage(
+                booker.getId() + 1, BookingState.ALL, now, null, 7).isEmpty());
+    }
+
+    @Test
+    void bookingDtoProjectionAllocatesLessThanEntitiesTest() {
+        User booker = userRepository.save(user);
+        User owner = userRepository.save(User.builder().email("owner@test.com").name("owner").build());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        for (int i = 0; i < 20; i++) {
+            Item itemFromDB = itemRepository.save(Item.builder()
+                    .name("Дрель " + i)
+                    .description("Простая дрель")
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            for (int j = 0; j < 10; j++) {
+                bookingRepository.save(approvedBooking(itemFromDB, booker, now.plusDays(i * 10 + j),
+                        now.plusDays(i * 10 + j).plusHours(1)));
+            }
+        }
+        em.flush();
+        BookingMapper bookingMapper = Mappers.getMapper(BookingMapper.class);
+        Pageable page = PageRequest.of(0, 200);
+
+        long entityBytes = allocatedPerCall(() -> em.getEntityManager()
+                .createQuery("select b from Booking b join fetch b.item join fetch b.booker " +
+                        "where b.booker.id = ?1 order by b.start desc", Booking.class)
+                .setParameter(1, booker.getId())
+                .setMaxResults(200)
+                .getResultList().stream()
+                .map(bookingMapper::toBookingDto)
+                .collect(Collectors.toList()));
+        long projectionBytes = allocatedPerCall(() -> bookingRepository.findBookerBookings(booker.getId(), page));
+
+        Assertions.assertTrue(projectionBytes < entityBytes,
+                "projection: " + projectionBytes + " bytes, entities: " + entityBytes + " bytes");
+    }
+
+    private long allocatedPerCall(Supplier<List<BookingDto>> call) {
+        Assertions.assertEquals(200, call.get().size());
+        return Allocations.allocatedPerCall(50, () -> {
+            em.clear();
+            call.get();
+        });
+    }
+
+    private List<Long> walkPages(Function<BookingCursor, List<BookingDto>> pageLoader) {
+        List<Long> ids = new ArrayList<>();
+        BookingCursor cursor = null;
+        List<BookingDto> page;
+        do {
+            page = pageLoader.apply(cursor);
+            ids.addAll(dtoIds(page));
+            if (!page.isEmpty()) {
+                BookingDto last = page.get(page.size() - 1);
+                cursor = BookingCursor.decode(new BookingCursor(last.getStart(), last.getId()).encode());
+            }
+        } while (!page.isEmpty());
+        return ids;
+    }
+
+    private List<Long> ids(List<Booking> bookings) {
+        return bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> dtoIds(List<BookingDto> bookings) {
+        return bookings.stream()
+                .map(BookingDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private Booking approvedBooking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+
     private void checkBookingAreTheSame(Booking booking, Booking secondBooking) {
         Assertions.assertEquals(booking.getStart(), secondBooking.getStart());
         Assertions.assertEquals(booking.getEnd(), secondBooking.getEnd());
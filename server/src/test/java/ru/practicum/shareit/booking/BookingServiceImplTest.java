@@ -13,6 +13,8 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.util.BookingCursor;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.UnsupportedStatus;
@@ -22,6 +24,7 @@ import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -71,13 +74,13 @@ public class BookingServiceImplTest {
         itemDtoFromDB = itemService.create(testUser.getId(), itemDto);
 
         bookingShortDto = BookingShortDto.builder()
-                .start(LocalDateTime.now().plusNanos(1))
-                .end(LocalDateTime.now().plusNanos(2))
+                .start(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusNanos(1000))
+                .end(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusNanos(2000))
                 .itemId(itemDtoFromDB.getId())
                 .build();
         secondBookingShortDto = BookingShortDto.builder()
-                .start(LocalDateTime.now().plusHours(3))
-                .end(LocalDateTime.now().plusHours(4))
+                .start(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusHours(3))
+                .end(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusHours(4))
                 .itemId(itemDtoFromDB.getId())
                 .build();
     }
@@ -90,6 +93,49 @@ public class BookingServiceImplTest {
         checkBookingsAreTheSame(bookingDtoFromDB, bookingShortDto, secondTestUser, itemDtoFromDB, BookingStatus.WAITING);
     }
 
+    @Test
+    void createAllBookingsTest() {
+        ItemDto secondItem = itemService.create(testUser.getId(), ItemDto.builder()
+                .name("Пила")
+                .description("Ручная пила")
+                .available(true)
+                .build());
+        BookingShortDto secondItemBooking = BookingShortDto.builder()
+                .start(bookingShortDto.getStart())
+                .end(bookingShortDto.getEnd())
+                .itemId(secondItem.getId())
+                .build();
+
+        List<BookingDto> bookings = bookingService.createAll(secondTestUser.getId(),
+                List.of(bookingShortDto, secondBookingShortDto, secondItemBooking));
+
+        assertThat(bookings.size(), equalTo(3));
+        checkBookingsAreTheSame(bookings.get(0), bookingShortDto, secondTestUser, itemDtoFromDB, BookingStatus.WAITING);
+        checkBookingsAreTheSame(bookings.get(2), secondItemBooking, secondTestUser, secondItem, BookingStatus.WAITING);
+        assertThat(bookingService.findAllBookingsMadeByUser(secondTestUser.getId(), "ALL", 0, 10).size(),
+                equalTo(3));
+    }
+
+    @Test
+    void createAllOverlappingBookingsTest() {
+        BookingShortDto overlapping = BookingShortDto.builder()
+                .start(secondBookingShortDto.getStart().minusMinutes(30))
+                .end(secondBookingShortDto.getEnd().minusMinutes(30))
+                .itemId(itemDtoFromDB.getId())
+                .build();
+
+        Assertions.assertThrows(ConflictException.class, () -> bookingService.createAll(secondTestUser.getId(),
+                List.of(bookingShortDto, secondBookingShortDto, overlapping)));
+
+        final NotFoundException exception = Assertions.assertThrows(NotFoundException.class,
+                () -> bookingService.createAll(secondTestUser.getId(), List.of(BookingShortDto.builder()
+                        .start(bookingShortDto.getStart())
+                        .end(bookingShortDto.getEnd())
+                        .itemId(999L)
+                        .build())));
+        Assertions.assertEquals("Item with id=999 not found.", exception.getMessage());
+    }
+
     @Test
     void approveBookingTest() {
         BookingDto bookingDtoFromDB = bookingService.create(secondTestUser.getId(), bookingShortDto);
@@ -213,8 +259,8 @@ public class BookingServiceImplTest {
     @Test
     void getAllBookingsCurrentStateTest() {
         BookingShortDto bookingDto = BookingShortDto.builder()
-                .start(LocalDateTime.now().minusHours(1))
-                .end(LocalDateTime.now().plusHours(2))
+                .start(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).minusHours(1))
+                .end(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusHours(2))
                 .itemId(itemDtoFromDB.getId())
                 .build();
         List<BookingShortDto> bookingDtos = List.of(bookingDto);
@@ -233,8 +279,8 @@ public class BookingServiceImplTest {
     @Test
     void getAllBookingsFutureStateTest() {
         BookingShortDto bookingDto = BookingShortDto.builder()
-                .start(LocalDateTime.now().plusHours(1))
-                .end(LocalDateTime.now().plusHours(2))
+                .start(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusHours(1))
+                .end(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusHours(2))
                 .itemId(itemDtoFromDB.getId())
                 .build();
         List<BookingShortDto> bookingDtos = List.of(bookingDto);
@@ -253,8 +299,8 @@ public class BookingServiceImplTest {
     @Test
     void getAllBookingsPastStateTest() {
         BookingShortDto bookingDto = BookingShortDto.builder()
-                .start(LocalDateTime.now().minusHours(2))
-                .end(LocalDateTime.now().minusHours(1))
+                .start(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).minusHours(2))
+                .end(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).minusHours(1))
                 .itemId(itemDtoFromDB.getId())
                 .build();
         List<BookingShortDto> bookingDtos = List.of(bookingDto);
@@ -272,8 +318,8 @@ public class BookingServiceImplTest {
     @Test
     void getAllOwnerBookingsCurrentStateTest() {
         BookingShortDto bookingDto = BookingShortDto.builder()
-                .start(LocalDateTime.now().minusHours(1))
-                .end(LocalDateTime.now().plusHours(2))
+                .start(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).minusHours(1))
+                .end(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusHours(2))
                 .itemId(itemDtoFromDB.getId())
                 .build();
         List<BookingShortDto> bookingDtos = List.of(bookingDto);
@@ -291,8 +337,8 @@ public class BookingServiceImplTest {
     @Test
     void getAllOwnerBookingsFutureStateTest() {
         BookingShortDto bookingDto = BookingShortDto.builder()
-                .start(LocalDateTime.now().plusHours(1))
-                .end(LocalDateTime.now().plusHours(2))
+                .start(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusHours(1))
+                .end(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusHours(2))
                 .itemId(itemDtoFromDB.getId())
                 .build();
         List<BookingShortDto> bookingDtos = List.of(bookingDto);
@@ -310,8 +356,8 @@ public class BookingServiceImplTest {
     @Test
     void getAllOwnerBookingsPastStateTest() {
         BookingShortDto bookingDto = BookingShortDto.builder()
-                .start(LocalDateTime.now().minusHours(2))
-                .end(LocalDateTime.now().minusHours(1))
+                .start(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).minusHours(2))
+                .end(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).minusHours(1))
                 .itemId(itemDtoFromDB.getId())
                 .build();
         List<BookingShortDto> bookingDtos = List.of(bookingDto);
@@ -333,11 +379,34 @@ public class BookingServiceImplTest {
         Assertions.assertEquals("У пользователя нет ни одной вещи!", exception.getMessage());
     }
 
+    @Test
+    void getBookingsAfterCursorTest() {
+        BookingDto firstBooking = bookingService.create(secondTestUser.getId(), bookingShortDto);
+        BookingDto secondBooking = bookingService.create(secondTestUser.getId(), secondBookingShortDto);
+
+        List<BookingDto> firstPage = bookingService.findBookingsMadeByUserAfter(
+                secondTestUser.getId(), "ALL", "", 1);
+        String cursor = new BookingCursor(firstPage.get(0).getStart(), firstPage.get(0).getId()).encode();
+        List<BookingDto> secondPage = bookingService.findBookingsOfItemsAfter(testUser.getId(), "ALL", cursor, 1);
+
+        assertThat(firstPage.size(), equalTo(1));
+        assertThat(firstPage.get(0).getId(), equalTo(secondBooking.getId()));
+        assertThat(secondPage.size(), equalTo(1));
+        assertThat(secondPage.get(0).getId(), equalTo(firstBooking.getId()));
+    }
+
+    @Test
+    void getBookingsAfterInvalidCursorTest() {
+        final BadRequestException exception = Assertions.assertThrows(BadRequestException.class,
+                () -> bookingService.findBookingsMadeByUserAfter(secondTestUser.getId(), "ALL", "not-a-cursor", 3));
+        Assertions.assertEquals("Invalid cursor: not-a-cursor", exception.getMessage());
+    }
+
     @Test
     void createBookingItemStartLaterThanFinishTest() {
         BookingShortDto bookingDto = BookingShortDto.builder()
-                .start(LocalDateTime.now().plusHours(2))
-                .end(LocalDateTime.now().plusHours(1))
+                .start(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusHours(2))
+                .end(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusHours(1))
                 .itemId(itemDtoFromDB.getId())
                 .build();
 
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.event.BookingApprovedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.booking.timeline.ItemTimeline;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BookingTimelineTest {
+    private static final Long ITEM_ID = 1L;
+    private static final int MAX_ITEMS = 2;
+
+    private BookingRepository bookingRepository;
+    private BookingTimeline bookingTimeline;
+    private LocalDateTime now;
+
+    @BeforeEach
+    public void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findTimelineBookings(anyCollection(), eq(BookingStatus.APPROVED)))
+                .thenReturn(List.of());
+        bookingTimeline = new BookingTimeline(bookingRepository, PrimaryReads.withoutReplicas(), MAX_ITEMS);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void lastAndNextTest() {
+        bookingTimeline.findByItemIds(List.of(ITEM_ID));
+        approve(1L, now.minusDays(5), now.plusDays(1));
+        approve(2L, now.minusDays(2), now.minusDays(1));
+        approve(3L, now.plusDays(2), now.plusDays(3));
+        approve(4L, now.plusDays(1), now.plusDays(4));
+        approve(5L, now, now.plusHours(1));
+        approve(4L, now.plusDays(1), now.plusDays(4));
+
+        ItemTimeline timeline = bookingTimeline.findByItemIds(List.of(ITEM_ID)).get(ITEM_ID);
+
+        Assertions.assertEquals(5, timeline.size());
+        Assertions.assertEquals(1L, timeline.last(now).getId());
+        Assertions.assertEquals(4L, timeline.next(now).getId());
+        Assertions.assertEquals(4L, timeline.last(now.plusYears(1)).getId());
+        Assertions.assertNull(timeline.last(now.minusYears(1)));
+        Assertions.assertNull(timeline.next(now.plusYears(1)));
+        verify(bookingRepository, times(1)).findTimelineBookings(anyCollection(), eq(BookingStatus.APPROVED));
+    }
+
+    @Test
+    void approvalsBeforeLoadAreReadFromDatabaseTest() {
+        approve(1L, now.plusDays(1), now.plusDays(2));
+
+        Assertions.assertNull(bookingTimeline.findByItemIds(List.of(ITEM_ID)).get(ITEM_ID).next(now));
+        Assertions.assertEquals(0, bookingTimeline.findByItemIds(List.of(ITEM_ID)).get(ITEM_ID).size());
+    }
+
+    @Test
+    void userDeletionDropsLoadedTimelinesTest() {
+        bookingTimeline.findByItemIds(List.of(ITEM_ID));
+        bookingTimeline.onUserDeleted(new UserDeletedEvent(2L));
+        bookingTimeline.findByItemIds(List.of(ITEM_ID));
+
+        verify(bookingRepository, times(2)).findTimelineBookings(anyCollection(), eq(BookingStatus.APPROVED));
+    }
+
+    @Test
+    void evictsLeastRecentlyReadItemBeyondMaxItemsTest() {
+        bookingTimeline.findByItemIds(List.of(1L, 2L));
+        bookingTimeline.findByItemIds(List.of(1L));
+        bookingTimeline.findByItemIds(List.of(3L));
+
+        bookingTimeline.findByItemIds(List.of(1L, 3L));
+        verify(bookingRepository, times(2)).findTimelineBookings(anyCollection(), eq(BookingStatus.APPROVED));
+        bookingTimeline.findByItemIds(List.of(2L));
+        verify(bookingRepository).findTimelineBookings(List.of(2L), BookingStatus.APPROVED);
+        verify(bookingRepository, times(3)).findTimelineBookings(anyCollection(), eq(BookingStatus.APPROVED));
+    }
+
+    @Test
+    void concurrentApprovalsAndReadsTest() throws Exception {
+        bookingTimeline.findByItemIds(List.of(ITEM_ID));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+
+        for (int w = 0; w < 4; w++) {
+            long offset = w * 500L;
+            writers.add(executor.submit(() -> {
+                for (long id = offset + 1; id <= offset + 500; id++) {
+                    approve(id, now.plusMinutes(id), now.plusMinutes(id + 1));
+                }
+            }));
+        }
+        for (int r = 0; r < 4; r++) {
+            readers.add(executor.submit(() -> {
+                while (writing.get()) {
+                    ItemTimeline timeline = bookingTimeline.findByItemIds(List.of(ITEM_ID)).get(ITEM_ID);
+                    if (timeline.size() > 0) {
+                        Assertions.assertNotNull(timeline.next(now));
+                    }
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        for (Future<?> reader : readers) {
+            reader.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        ItemTimeline timeline = bookingTimeline.findByItemIds(List.of(ITEM_ID)).get(ITEM_ID);
+        Assertions.assertEquals(2000, timeline.size());
+        Assertions.assertEquals(1L, timeline.next(now).getId());
+        Assertions.assertEquals(2000L, timeline.last(now.plusYears(1)).getId());
+    }
+
+    private void approve(Long id, LocalDateTime start, LocalDateTime end) {
+        bookingTimeline.onBookingApproved(new BookingApprovedEvent(id, ITEM_ID, 10L, start, end));
+    }
+}
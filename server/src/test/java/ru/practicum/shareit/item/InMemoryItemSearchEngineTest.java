@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.instanceOf;
+
+@SpringBootTest(
+        properties = "shareit.item.search.engine=memory",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+public class InMemoryItemSearchEngineTest {
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ItemSearchEngine itemSearchEngine;
+    private UserDto owner;
+
+    @BeforeEach
+    public void setUp() {
+        owner = userService.create(UserDto.builder()
+                .email("owner@test.com")
+                .name("owner")
+                .build());
+    }
+
+    @Test
+    void engineIsInMemoryTest() {
+        assertThat(itemSearchEngine, instanceOf(InMemoryItemSearchEngine.class));
+    }
+
+    @Test
+    void searchSeesCommittedChangesTest() {
+        ItemDto drill = itemService.create(owner.getId(), ItemDto.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .build());
+        ItemDto screwdriver = itemService.create(owner.getId(), ItemDto.builder()
+                .name("Отвертка")
+                .description("Аккумуляторная отвертка")
+                .available(true)
+                .build());
+
+        assertThat(ids(itemService.search("оТверТ", 0, 10)), contains(screwdriver.getId()));
+
+        itemService.update(owner.getId(), drill.getId(), ItemDto.builder()
+                .description("Аккумуляторная дрель")
+                .build());
+
+        assertThat(ids(itemService.search("аккумуляторная", 0, 10)), contains(drill.getId(), screwdriver.getId()));
+        assertThat(ids(itemService.search("аккумуляторная", 1, 1)), contains(screwdriver.getId()));
+
+        itemService.update(owner.getId(), screwdriver.getId(), ItemDto.builder()
+                .available(false)
+                .build());
+
+        assertThat(ids(itemService.search("аккумуляторная", 0, 10)), contains(drill.getId()));
+        assertThat(itemService.search("отвертка", 0, 10), empty());
+    }
+
+    @Test
+    void deletedOwnerItemsLeaveSearchPagesTest() {
+        UserDto otherOwner = userService.create(UserDto.builder()
+                .email("other@test.com")
+                .name("other")
+                .build());
+        for (int i = 0; i < 3; i++) {
+            itemService.create(owner.getId(), ItemDto.builder()
+                    .name("Дрель " + i)
+                    .description("Простая дрель")
+                    .available(true)
+                    .build());
+        }
+        ItemDto kept = itemService.create(otherOwner.getId(), ItemDto.builder()
+                .name("Дрель ударная")
+                .description("Ударная дрель")
+                .available(true)
+                .build());
+        ItemDto keptToo = itemService.create(otherOwner.getId(), ItemDto.builder()
+                .name("Дрель угловая")
+                .description("Угловая дрель")
+                .available(true)
+                .build());
+
+        userService.delete(owner.getId());
+
+        assertThat(ids(itemService.search("дрель", 0, 2)), contains(kept.getId(), keptToo.getId()));
+        assertThat(itemService.search("дрель", 2, 2), empty());
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
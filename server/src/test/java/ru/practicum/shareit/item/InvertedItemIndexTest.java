@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.InvertedItemIndex;
+
+public class InvertedItemIndexTest {
+    private InvertedItemIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new InvertedItemIndex();
+        index.put(3L, "Дрель", "Простая дрель");
+        index.put(1L, "Отвертка", "Аккумуляторная отвертка");
+        index.put(2L, "Дрель+", "Аккумуляторная дрель");
+    }
+
+    @Test
+    void searchByPrefixIgnoringCaseTest() {
+        Assertions.assertArrayEquals(new long[]{2L, 3L}, index.search("дРелЬ"));
+        Assertions.assertArrayEquals(new long[]{1L}, index.search("оТверТ"));
+    }
+
+    @Test
+    void searchIntersectsWordsTest() {
+        Assertions.assertArrayEquals(new long[]{1L, 2L}, index.search("аккумуляторная"));
+        Assertions.assertArrayEquals(new long[]{2L}, index.search("аккумуляторная дрель"));
+        Assertions.assertArrayEquals(new long[0], index.search("аккумуляторная клей"));
+    }
+
+    @Test
+    void putReplacesPreviousTokensTest() {
+        index.put(3L, "Клей Момент", "Тюбик суперклея");
+
+        Assertions.assertArrayEquals(new long[]{2L}, index.search("дрель"));
+        Assertions.assertArrayEquals(new long[]{3L}, index.search("клей"));
+        Assertions.assertEquals(3, index.size());
+    }
+
+    @Test
+    void removeTest() {
+        index.remove(2L);
+        index.remove(42L);
+
+        Assertions.assertArrayEquals(new long[]{3L}, index.search("дрель"));
+        Assertions.assertEquals(2, index.size());
+    }
+
+    @Test
+    void searchWithoutWordsTest() {
+        Assertions.assertArrayEquals(new long[0], index.search(""));
+        Assertions.assertArrayEquals(new long[0], index.search(" +, "));
+    }
+}
@@ -136,6 +136,24 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.[0].available", is(itemDto.getAvailable())));
     }
 
+    @Test
+    void findAvailableItemsTest() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusDays(2);
+        when(itemService.findAvailable("дрель", start, end, 0, 10))
+                .thenReturn(items);
+
+        mvc.perform(get("/items/available")
+                        .param("text", "дрель")
+                        .param("start", start.toString())
+                        .param("end", end.toString())
+                        .header(USER_HEADER, 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id", is(itemDto.getId()), Long.class))
+                .andExpect(jsonPath("$.[0].name", is(itemDto.getName())));
+    }
+
     @Test
     void addCommentTest() throws Exception {
         CommentDto comment = CommentDto.builder()
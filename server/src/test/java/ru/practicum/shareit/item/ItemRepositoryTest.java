@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,12 +10,21 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class ItemRepositoryTest {
     @Autowired
     private TestEntityManager em;
@@ -56,4 +67,80 @@ public class ItemRepositoryTest {
         Assertions.assertEquals(item.getDescription(), itemFromDB.getDescription());
         Assertions.assertEquals(item.getAvailable(), itemFromDB.getAvailable());
     }
+
+    @Test
+    void findAvailableBetweenTest() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 12, 0);
+        User user = em.persist(User.builder().email("test@test.com").name("testName").build());
+        Item booked = em.persist(item);
+        Item free = em.persist(Item.builder().name("Дрель+").description("Аккумуляторная дрель").available(true).build());
+        Item rejected = em.persist(Item.builder().name("Дрель 2").description("Ударная дрель").available(true).build());
+        Item unavailable = em.persist(Item.builder().name("Дрель 3").description("Сломанная дрель").available(false)
+                .build());
+        em.persist(Item.builder().name("Отвертка").description("Аккумуляторная отвертка").available(true).build());
+        em.persist(booking(booked, user, start.minusDays(1), start.plusHours(1), BookingStatus.APPROVED));
+        em.persist(booking(free, user, start.minusDays(1), start, BookingStatus.APPROVED));
+        em.persist(booking(free, user, start.plusDays(1), start.plusDays(2), BookingStatus.APPROVED));
+        em.persist(booking(rejected, user, start, start.plusDays(1), BookingStatus.REJECTED));
+
+        List<ItemDto> available = itemRepositoryJpa.findAvailableAmong(
+                List.of(booked.getId(), free.getId(), rejected.getId(), unavailable.getId()), BookingStatus.APPROVED,
+                start, start.plusDays(1));
+        List<ItemDto> secondPage = itemRepositoryJpa.findAvailableBetween(
+                BookingStatus.APPROVED, start, start.plusDays(1), PageRequest.of(1, 2));
+
+        Assertions.assertEquals(List.of(free.getId(), rejected.getId()),
+                available.stream().map(ItemDto::getId).sorted().collect(Collectors.toList()));
+        Assertions.assertEquals(1, secondPage.size());
+        Assertions.assertEquals("Отвертка", secondPage.get(0).getName());
+    }
+
+    @Test
+    void findByRequestIdInRunsSingleStatementTest() {
+        List<Long> requestIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User requestor = em.persist(User.builder().email("requestor" + i + "@test.com").name("requestor").build());
+            User owner = em.persist(User.builder().email("owner" + i + "@test.com").name("owner").build());
+            ItemRequest request = em.persist(ItemRequest.builder()
+                    .description("Нужна дрель")
+                    .created(LocalDateTime.now())
+                    .requestor(requestor)
+                    .build());
+            requestIds.add(request.getId());
+            for (int j = 0; j <= i; j++) {
+                em.persist(Item.builder()
+                        .name("Дрель " + j)
+                        .description("Простая дрель")
+                        .available(true)
+                        .owner(owner)
+                        .request(request)
+                        .build());
+            }
+        }
+        em.persist(Item.builder().name("Отвертка").description("Без запроса").available(true).build());
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Map<Long, Long> itemsByRequestId = itemRepositoryJpa.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemDto::getRequestId, Collectors.counting()));
+
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(5, itemsByRequestId.size());
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(i + 1, itemsByRequestId.get(requestIds.get(i)));
+        }
+    }
+
+    private Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build();
+    }
 }
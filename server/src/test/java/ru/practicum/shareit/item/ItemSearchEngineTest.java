@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.FullTextItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+
+import java.util.List;
+
+@DataJpaTest
+@Import(FullTextItemSearchEngine.class)
+@TestPropertySource(properties = "shareit.item.search.engine=fulltext")
+public class ItemSearchEngineTest {
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+    private Item drill;
+    private Item screwdriver;
+
+    @BeforeEach
+    public void setUp() {
+        drill = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Аккумуляторная дрель")
+                .available(true)
+                .build());
+
+        screwdriver = itemRepository.save(Item.builder()
+                .name("Отвертка")
+                .description("Аккумуляторная отвертка")
+                .available(true)
+                .build());
+
+        itemRepository.save(Item.builder()
+                .name("Дрель+")
+                .description("Дрель, которую не дают")
+                .available(false)
+                .build());
+    }
+
+    @Test
+    void engineIsFullTextTest() {
+        Assertions.assertTrue(itemSearchEngine instanceof FullTextItemSearchEngine);
+    }
+
+    @Test
+    void searchIgnoresCaseAndUnavailableItemsTest() {
+        List<Item> items = itemSearchEngine.search("дРелЬ", PageRequest.of(0, 10));
+
+        Assertions.assertEquals(1, items.size());
+        Assertions.assertEquals(drill.getId(), items.get(0).getId());
+    }
+
+    @Test
+    void searchMatchesAllWordsTest() {
+        List<Item> items = itemSearchEngine.search("аккумуляторная отвертка", PageRequest.of(0, 10));
+
+        Assertions.assertEquals(1, items.size());
+        Assertions.assertEquals(screwdriver.getId(), items.get(0).getId());
+    }
+
+    @Test
+    void searchPaginationTest() {
+        List<Item> firstPage = itemSearchEngine.search("аккумуляторная", PageRequest.of(0, 1));
+        List<Item> secondPage = itemSearchEngine.search("аккумуляторная", PageRequest.of(1, 1));
+
+        Assertions.assertEquals(1, firstPage.size());
+        Assertions.assertEquals(1, secondPage.size());
+        Assertions.assertNotEquals(firstPage.get(0).getId(), secondPage.get(0).getId());
+    }
+
+    @Test
+    void searchWithoutWordsTest() {
+        Assertions.assertTrue(itemSearchEngine.search(" ,. ", PageRequest.of(0, 10)).isEmpty());
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exception.ForbiddenAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.BadRequestException;
@@ -21,19 +24,25 @@ import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static ru.practicum.shareit.util.BatchSize.MAX_BATCH_SIZE;
 
 @Transactional
 @SpringBootTest(
-        properties = "db.name=test",
+        properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"},
         webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -42,6 +51,7 @@ public class ItemServiceImplTest {
     private final ItemService itemService;
     private final UserService userService;
     private final BookingService bookingService;
+    private final EntityManager entityManager;
     private ItemDto itemDto;
     private UserDto secondUserDto;
     private ItemDto updateItemDto;
@@ -84,6 +94,39 @@ public class ItemServiceImplTest {
     }
 
 
+    @Test
+    void createAllItemsTest() {
+        List<ItemDto> itemDtos = IntStream.range(0, MAX_BATCH_SIZE)
+                .mapToObj(i -> ItemDto.builder()
+                        .name("Дрель " + i)
+                        .description("Простая дрель")
+                        .available(true)
+                        .build())
+                .collect(Collectors.toList());
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.flush();
+        statistics.clear();
+
+        List<ItemDto> items = itemService.createAll(testUser.getId(), itemDtos);
+        entityManager.flush();
+
+        assertThat(items.size(), equalTo(MAX_BATCH_SIZE));
+        checkItemsAreTheSame(items.get(MAX_BATCH_SIZE - 1), itemDtos.get(MAX_BATCH_SIZE - 1));
+        assertThat(statistics.getEntityInsertCount(), equalTo((long) MAX_BATCH_SIZE));
+        // a few sequence calls and one prepared insert per batch of 50 instead of one round trip per item
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(8L));
+    }
+
+    @Test
+    void createAllItemsRejectsEmptyAndOversizedBatchesTest() {
+        List<ItemDto> oversized = IntStream.range(0, MAX_BATCH_SIZE + 1)
+                .mapToObj(i -> itemDto)
+                .collect(Collectors.toList());
+
+        Assertions.assertThrows(BadRequestException.class, () -> itemService.createAll(testUser.getId(), List.of()));
+        Assertions.assertThrows(BadRequestException.class, () -> itemService.createAll(testUser.getId(), oversized));
+    }
+
     @Test
     void updateItemTest() {
         ItemDto itemDtoFromDB = itemService.create(testUser.getId(), itemDto);
@@ -122,6 +165,29 @@ public class ItemServiceImplTest {
         }
     }
 
+    @Test
+    void getAllUserItemsWithBookingsTest() {
+        ItemDto first = itemService.create(testUser.getId(), itemDto);
+        ItemDto second = itemService.create(testUser.getId(), updateItemDto);
+        BookingDto booking = bookingService.create(secondUserFromDB.getId(), BookingShortDto.builder()
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .itemId(second.getId())
+                .build());
+        bookingService.approve(testUser.getId(), booking.getId(), true);
+
+        List<ItemDto> itemsFromDB = itemService.findAllItemsOfUser(testUser.getId(), 0, 10);
+
+        assertThat(itemsFromDB.size(), equalTo(2));
+        assertThat(itemsFromDB.get(0).getId(), equalTo(first.getId()));
+        assertThat(itemsFromDB.get(0).getNextBooking(), nullValue());
+        assertThat(itemsFromDB.get(1).getId(), equalTo(second.getId()));
+        assertThat(itemsFromDB.get(1).getLastBooking(), nullValue());
+        assertThat(itemsFromDB.get(1).getNextBooking().getId(), equalTo(booking.getId()));
+        assertThat(itemsFromDB.get(1).getNextBooking().getBookerId(), equalTo(secondUserFromDB.getId()));
+        assertThat(itemsFromDB.get(1).getComments().size(), equalTo(0));
+    }
+
     @Test
     void findItemsTest() {
         String textSearch = "аккУМУляторная";
@@ -136,6 +202,46 @@ public class ItemServiceImplTest {
         checkItemsAreTheSame(itemsFromSearch.get(0), updateItemDto);
     }
 
+    @Test
+    void findAvailableItemsTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<ItemDto> booked = itemService.createAll(testUser.getId(), IntStream.range(0, MAX_BATCH_SIZE)
+                .mapToObj(i -> ItemDto.builder()
+                        .name("Дрель " + i)
+                        .description("Простая дрель")
+                        .available(true)
+                        .build())
+                .collect(Collectors.toList()));
+        ItemDto free = itemService.create(testUser.getId(), itemDto);
+        ItemDto secondFree = itemService.create(testUser.getId(), updateItemDto);
+        itemService.create(testUser.getId(), ItemDto.builder()
+                .name("Отвертка")
+                .description("Простая отвертка")
+                .available(true)
+                .build());
+        // the booked drills fill the first batch of search candidates, so the free ones only come with the next
+        bookingService.createAll(secondUserFromDB.getId(), booked.stream()
+                .map(item -> BookingShortDto.builder()
+                        .itemId(item.getId())
+                        .start(start.minusHours(1))
+                        .end(start.plusHours(1))
+                        .build())
+                .collect(Collectors.toList()));
+        entityManager.createQuery("update Booking b set b.status = :status")
+                .setParameter("status", BookingStatus.APPROVED)
+                .executeUpdate();
+
+        List<ItemDto> firstPage = itemService.findAvailable("дРелЬ", start, start.plusDays(1), 0, 1);
+        List<ItemDto> secondPage = itemService.findAvailable("дРелЬ", start, start.plusDays(1), 1, 10);
+        List<ItemDto> anyItem = itemService.findAvailable("", start, start.plusDays(1), 0, 10);
+
+        assertThat(firstPage.size(), equalTo(1));
+        assertThat(firstPage.get(0).getId(), equalTo(free.getId()));
+        assertThat(secondPage.size(), equalTo(1));
+        assertThat(secondPage.get(0).getId(), equalTo(secondFree.getId()));
+        assertThat(anyItem.size(), equalTo(3));
+    }
+
     @Test
     void addCommentTest() {
         CommentDto comment = CommentDto.builder()
@@ -10,6 +10,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.service.UserService;
@@ -35,6 +37,7 @@ import static org.hamcrest.Matchers.notNullValue;
 public class ItemRequestServiceImplTest {
     private final ItemRequestService requestService;
     private final UserService userService;
+    private final ItemService itemService;
     private UserDto firstUser;
     private UserDto secondUser;
     private ItemRequestDto itemRequestDto;
@@ -117,6 +120,28 @@ public class ItemRequestServiceImplTest {
         }
     }
 
+    @Test
+    void getAllRequestsWithItemsTest() {
+        ItemRequestDto first = requestService.create(firstUser.getId(), itemRequestList.get(0));
+        ItemRequestDto second = requestService.create(firstUser.getId(), itemRequestList.get(1));
+        ItemDto item = itemService.create(secondUser.getId(), ItemDto.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .requestId(second.getId())
+                .build());
+
+        List<ItemRequestDto> allRequests = requestService.findAllRequestsExceptYours(secondUser.getId(), 0, 3);
+
+        assertThat(allRequests, hasSize(2));
+        assertThat(allRequests.get(0).getId(), equalTo(first.getId()));
+        assertThat(allRequests.get(0).getItems(), hasSize(0));
+        assertThat(allRequests.get(1).getItems(), hasSize(1));
+        assertThat(allRequests.get(1).getItems().get(0).getId(), equalTo(item.getId()));
+        assertThat(allRequests.get(1).getItems().get(0).getRequestId(), equalTo(second.getId()));
+        assertThat(requestService.findById(firstUser.getId(), second.getId()).getItems(), hasSize(1));
+    }
+
     @Test
     void getRequestByIdWrongUserTest() {
         Long badId = 999L;
@@ -126,6 +151,16 @@ public class ItemRequestServiceImplTest {
         Assertions.assertEquals("User with id=" + badId + " not found.", exception.getMessage());
     }
 
+    @Test
+    void getAllRequestsOfDeletedUserTest() {
+        requestService.findAllRequestsOfUser(secondUser.getId());
+        userService.delete(secondUser.getId());
+
+        final NotFoundException exception = Assertions.assertThrows(NotFoundException.class,
+                () -> requestService.findAllRequestsOfUser(secondUser.getId()));
+        Assertions.assertEquals("User with id=" + secondUser.getId() + " not found.", exception.getMessage());
+    }
+
     @Test
     void getRequestByIdWrongIdTest() {
         requestService.create(firstUser.getId(), itemRequestDto);
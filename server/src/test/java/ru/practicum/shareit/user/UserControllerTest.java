@@ -12,6 +12,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.util.UserCursor;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -25,8 +26,11 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.PagingHeaders.NEXT_CURSOR_HEADER;
+import static ru.practicum.shareit.util.PagingHeaders.TOTAL_COUNT_ESTIMATE_HEADER;
 
 @WebMvcTest(controllers = UserController.class)
 public class UserControllerTest {
@@ -104,17 +108,33 @@ public class UserControllerTest {
 
     @Test
     void getAllUsersTest() throws Exception {
-        when(userService.findAllUsers())
+        when(userService.findAllUsers(0, 10))
                 .thenReturn(users);
+        when(userService.estimateUserCount())
+                .thenReturn(2L);
 
         mvc.perform(get("/users/")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(TOTAL_COUNT_ESTIMATE_HEADER, "2"))
+                .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$.[1].id", is(2)))
                 .andExpect(jsonPath("$.[1].email", is(secondUserDto.getEmail())))
                 .andExpect(jsonPath("$.[1].name", is(secondUserDto.getName())));
     }
 
+    @Test
+    void getUsersAfterCursorTest() throws Exception {
+        when(userService.findUsersAfter("", 2))
+                .thenReturn(users);
+
+        mvc.perform(get("/users?cursor=&size=2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR_HEADER, new UserCursor(2L).encode()))
+                .andExpect(jsonPath("$.length()", is(2)));
+    }
+
     @Test
     void deleteUserTest() throws Exception {
         doNothing().when(userService).delete(anyLong());
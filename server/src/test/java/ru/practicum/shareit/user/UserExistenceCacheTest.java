@@ -0,0 +1,88 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserSavedEvent;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserExistenceCacheTest {
+    private UserRepository userRepository;
+    private MeterRegistry meterRegistry;
+    private final PrimaryReads primaryReads = PrimaryReads.withoutReplicas();
+
+    @BeforeEach
+    public void setUp() {
+        userRepository = mock(UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(userRepository.existsById(999L)).thenReturn(false);
+    }
+
+    @Test
+    void cachesKnownAndUnknownIdsTest() {
+        UserExistenceCache cache = new UserExistenceCache(userRepository, primaryReads, meterRegistry, 10,
+                Duration.ofMinutes(1));
+
+        Assertions.assertTrue(cache.exists(1L));
+        Assertions.assertTrue(cache.exists(1L));
+        Assertions.assertFalse(cache.exists(999L));
+        Assertions.assertFalse(cache.exists(999L));
+
+        verify(userRepository, times(1)).existsById(1L);
+        verify(userRepository, times(1)).existsById(999L);
+        Assertions.assertEquals(2, gets("hit"));
+        Assertions.assertEquals(2, gets("miss"));
+        Assertions.assertEquals(2, meterRegistry.get("cache.size").gauge().value());
+    }
+
+    @Test
+    void evictsOnSaveAndDeleteTest() {
+        UserExistenceCache cache = new UserExistenceCache(userRepository, primaryReads, meterRegistry, 10,
+                Duration.ofMinutes(1));
+        Assertions.assertFalse(cache.exists(999L));
+        Assertions.assertTrue(cache.exists(1L));
+
+        when(userRepository.existsById(999L)).thenReturn(true);
+        cache.onUserSaving(new UserSavedEvent(999L));
+        when(userRepository.existsById(1L)).thenReturn(false);
+        cache.onUserDeleted(new UserDeletedEvent(1L));
+
+        Assertions.assertTrue(cache.exists(999L));
+        Assertions.assertFalse(cache.exists(1L));
+        Assertions.assertEquals(2, meterRegistry.get("cache.evictions").counter().count());
+    }
+
+    @Test
+    void expiresAndBoundsEntriesTest() {
+        UserExistenceCache expiring = new UserExistenceCache(userRepository, primaryReads, meterRegistry, 10,
+                Duration.ZERO);
+        expiring.exists(1L);
+        expiring.exists(1L);
+        verify(userRepository, times(2)).existsById(1L);
+
+        UserExistenceCache bounded = new UserExistenceCache(userRepository, primaryReads, new SimpleMeterRegistry(), 1,
+                Duration.ofMinutes(1));
+        bounded.exists(2L);
+        bounded.exists(999L);
+        bounded.exists(2L);
+        verify(userRepository, times(2)).existsById(2L);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("result", result).counter().count();
+    }
+}
@@ -9,19 +9,24 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.util.UserCursor;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.validation.ConstraintViolationException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasProperty;
@@ -96,7 +101,7 @@ public class UserServiceImplTest {
             userService.create(dto);
         }
 
-        List<UserDto> dtoFromDB = userService.findAllUsers();
+        List<UserDto> dtoFromDB = userService.findAllUsers(0, 10);
 
         assertThat(dtoFromDB.size(), equalTo(testList.size()));
         for (UserDto user : testList) {
@@ -107,13 +112,34 @@ public class UserServiceImplTest {
         }
     }
 
+    @Test
+    void findUsersPageTest() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(userService.create(UserDto.builder().name("user" + i).email("user" + i + "@test.com").build())
+                    .getId());
+        }
+
+        assertThat(userIds(userService.findAllUsers(2, 2)), contains(ids.get(2), ids.get(3)));
+        // from need not be a multiple of size
+        assertThat(userIds(userService.findAllUsers(1, 2)), contains(ids.get(1), ids.get(2)));
+        assertThat(userIds(userService.findAllUsers(3, 10)), contains(ids.get(3), ids.get(4)));
+
+        List<UserDto> first = userService.findUsersAfter("", 2);
+        assertThat(userIds(first), contains(ids.get(0), ids.get(1)));
+        String cursor = new UserCursor(first.get(1).getId()).encode();
+        assertThat(userIds(userService.findUsersAfter(cursor, 2)), contains(ids.get(2), ids.get(3)));
+        assertThat(userService.estimateUserCount(), equalTo(5L));
+        Assertions.assertThrows(BadRequestException.class, () -> userService.findUsersAfter("not a cursor", 2));
+    }
+
     @Test
     void deleteUserTest() {
         userService.create(userDto);
-        UserDto userFromDB = userService.findAllUsers().get(0);
+        UserDto userFromDB = userService.findAllUsers(0, 10).get(0);
 
         userService.delete(userFromDB.getId());
-        List<UserDto> dtoFromDB = userService.findAllUsers();
+        List<UserDto> dtoFromDB = userService.findAllUsers(0, 10);
 
         assertThat(dtoFromDB.size(), equalTo(0));
         final NotFoundException exception = Assertions.assertThrows(NotFoundException.class,
@@ -136,7 +162,11 @@ public class UserServiceImplTest {
         assertThat(user.getName(), equalTo(userDto.getName()));
         assertThat(user.getEmail(), equalTo(userDto.getEmail()));
     }
-}
-
 
+    private static List<Long> userIds(List<UserDto> users) {
+        return users.stream()
+                .map(UserDto::getId)
+                .collect(Collectors.toList());
+    }
 
+}
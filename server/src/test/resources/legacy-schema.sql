@@ -58,3 +58,8 @@ CREATE INDEX users_name_idx ON USERS(name);
 CREATE UNIQUE INDEX items_id_idx ON ITEMS (id);
 CREATE UNIQUE INDEX comments_id_idx ON COMMENTS (id);
 CREATE UNIQUE INDEX bookings_id_idx ON BOOKINGS (id);
+CREATE INDEX bookings_booker_start_idx ON BOOKINGS (booker_id, start_date DESC, id DESC);
+CREATE INDEX bookings_item_start_idx ON BOOKINGS (item_id, start_date DESC, id DESC);
+CREATE INDEX items_owner_id_idx ON ITEMS (owner_id);
+CREATE INDEX bookings_item_status_start_idx ON BOOKINGS (item_id, status, start_date, end_date);
+CREATE INDEX items_request_id_idx ON ITEMS (request_id);